@@ -0,0 +1,80 @@
+package org;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+// single/bulk - эталонная геометрия checkPointInArea, table* - HitTable, как в запросе;
+// X и R берутся только из допустимых значений, чтобы обе проверки видели одни точки
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AreaCheckerBenchmark {
+    private static final int SIZE = 1024;
+
+    @Param({"uniform", "adversarial"})
+    private String distribution;
+
+    private final float[] xs = new float[SIZE];
+    private final float[] ys = new float[SIZE];
+    private final float[] rs = new float[SIZE];
+    private int index;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            if ("uniform".equals(distribution)) {
+                // вся область ввода при максимальном R
+                rs[i] = 3f;
+                xs[i] = HitTable.X_VALUES[random.nextInt(HitTable.X_VALUES.length)];
+                ys[i] = -5f + random.nextFloat() * 8f;
+            } else {
+                // случайные четверть и R на каждую точку, попадание и промах примерно поровну;
+                // x считается в int, чтобы не получить -0.0, которого нет в X_VALUES
+                float r = HitTable.R_VALUES[random.nextInt(HitTable.R_VALUES.length)];
+                rs[i] = r;
+                xs[i] = (random.nextBoolean() ? 1 : -1) * random.nextInt((int) r + 1);
+                ys[i] = (random.nextBoolean() ? 1 : -1) * random.nextFloat() * r;
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean single() {
+        int i = index++ & (SIZE - 1);
+        return FastCGIApp.checkPointInArea(xs[i], ys[i], rs[i]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void bulk(Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            blackhole.consume(FastCGIApp.checkPointInArea(xs[i], ys[i], rs[i]));
+        }
+    }
+
+    @Benchmark
+    public boolean tableSingle() {
+        int i = index++ & (SIZE - 1);
+        return HitTable.isHit(HitTable.xIndex(xs[i]), HitTable.rIndex(rs[i]), ys[i]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void tableBulk(Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            blackhole.consume(HitTable.isHit(HitTable.xIndex(xs[i]), HitTable.rIndex(rs[i]), ys[i]));
+        }
+    }
+}
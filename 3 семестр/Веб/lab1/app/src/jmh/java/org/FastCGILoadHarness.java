@@ -0,0 +1,170 @@
+package org;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Нагрузка на FastCGIServer по протоколу FastCGI: connections постоянных
+ * (keep-conn) соединений, как у веб-сервера, шлют запросы подряд в течение
+ * seconds секунд после такого же прогрева. Прогон повторяется для FCGI_THREADS
+ * от 1 до maxThreads (по умолчанию - число ядер) и печатает req/s и p50/p99.
+ * Клиенты работают в той же JVM, поэтому делят ядра с сервером.
+ * <p>
+ * gradle fcgiLoad --args="64 5 4"
+ */
+public class FastCGILoadHarness {
+    private static final String QUERY = "x=1&y=-0.5&listR=1%2C2%2C3";
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("cores %d, connections %d, %d s per run%n",
+                Runtime.getRuntime().availableProcessors(), connections, seconds);
+        for (int threads = 1; threads <= maxThreads; threads++) {
+            ServerSocket socket = new ServerSocket(0, connections, InetAddress.getLoopbackAddress());
+            FastCGIServer server = new FastCGIServer(0, threads, connections, FastCGIApp::handle);
+            Thread acceptor = new Thread(() -> {
+                try {
+                    server.run(socket);
+                } catch (IOException e) {
+                    // сокет закрыт - прогон окончен
+                }
+            });
+            acceptor.start();
+            try {
+                run(socket.getLocalPort(), connections, seconds);
+                long[] latencies = run(socket.getLocalPort(), connections, seconds);
+                report(threads, latencies, seconds);
+            } finally {
+                socket.close();
+                acceptor.join();
+            }
+        }
+    }
+
+    // задержки всех ответов за прогон; каждое соединение - свой поток клиента
+    private static long[] run(int port, int connections, int seconds) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(connections);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int c = 0; c < connections; c++) {
+                futures.add(clients.submit(() -> drive(port, deadline)));
+            }
+            List<long[]> results = new ArrayList<>();
+            int total = 0;
+            for (Future<long[]> future : futures) {
+                long[] latencies = future.get();
+                results.add(latencies);
+                total += latencies.length;
+            }
+            long[] all = new long[total];
+            int position = 0;
+            for (long[] latencies : results) {
+                System.arraycopy(latencies, 0, all, position, latencies.length);
+                position += latencies.length;
+            }
+            return all;
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+    private static long[] drive(int port, long deadline) throws IOException {
+        byte[] request = request(QUERY);
+        long[] latencies = new long[1024];
+        int count = 0;
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            OutputStream out = socket.getOutputStream();
+            while (System.nanoTime() < deadline) {
+                long begin = System.nanoTime();
+                out.write(request);
+                readResponse(in);
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - begin;
+            }
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    // BEGIN_REQUEST с keep-conn, PARAMS с QUERY_STRING, пустые PARAMS и STDIN
+    private static byte[] request(String query) throws IOException {
+        ByteArrayOutputStream params = new ByteArrayOutputStream();
+        writePair(params, "QUERY_STRING", query);
+        writePair(params, "REQUEST_METHOD", "GET");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputStream out = new BufferedOutputStream(bytes);
+        writeRecord(out, 1, new byte[] {0, 1, 1, 0, 0, 0, 0, 0});
+        writeRecord(out, 4, params.toByteArray());
+        writeRecord(out, 4, new byte[0]);
+        writeRecord(out, 5, new byte[0]);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writePair(ByteArrayOutputStream out, String name, String value) {
+        byte[] nameBytes = name.getBytes(StandardCharsets.US_ASCII);
+        byte[] valueBytes = value.getBytes(StandardCharsets.US_ASCII);
+        out.write(nameBytes.length);
+        out.write(valueBytes.length);
+        out.writeBytes(nameBytes);
+        out.writeBytes(valueBytes);
+    }
+
+    private static void writeRecord(OutputStream out, int type, byte[] content) throws IOException {
+        out.write(new byte[] {1, (byte) type, 0, 1, (byte) (content.length >> 8), (byte) content.length, 0, 0});
+        out.write(content);
+    }
+
+    // записи STDOUT пропускаются, ответ кончается на END_REQUEST
+    private static void readResponse(DataInputStream in) throws IOException {
+        while (true) {
+            in.readUnsignedByte();
+            int type = in.readUnsignedByte();
+            in.readUnsignedShort();
+            int contentLength = in.readUnsignedShort();
+            int paddingLength = in.readUnsignedByte();
+            in.readUnsignedByte();
+            in.skipNBytes(contentLength + paddingLength);
+            if (type == 3) {
+                return;
+            }
+        }
+    }
+
+    private static void report(int threads, long[] latencies, int seconds) {
+        Arrays.sort(latencies);
+        System.out.printf("FCGI_THREADS=%-2d %8.0f req/s  p50 %6.3f ms  p99 %6.3f ms  max %6.2f ms%n",
+                threads,
+                latencies.length / (double) seconds,
+                percentile(latencies, 50),
+                percentile(latencies, 99),
+                latencies[latencies.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(sorted.length * percentile / 100) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
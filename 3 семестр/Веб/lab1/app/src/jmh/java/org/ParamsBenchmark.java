@@ -0,0 +1,35 @@
+package org;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParamsBenchmark {
+
+    @Param({
+        "x=1&y=-0.5&listR=1",
+        "x=-3&y=2.125&listR=1%2C1.5%2C2%2C2.5%2C3"
+    })
+    private String query;
+
+    @Benchmark
+    public Params scanner() {
+        return new Params(query);
+    }
+
+    @Benchmark
+    public Params decoder() {
+        Params params = new Params();
+        params.parseWithDecoder(query);
+        return params;
+    }
+}
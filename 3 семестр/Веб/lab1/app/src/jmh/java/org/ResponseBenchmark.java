@@ -0,0 +1,47 @@
+package org;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResponseBenchmark {
+    private final List<Boolean> results = List.of(false, true, true, false, true);
+    private final long mask = 0b10110;
+    private final float[] listR = {1f, 1.5f, 2f, 2.5f, 3f};
+    private final OutputStream out = OutputStream.nullOutputStream();
+    private final PrintStream printStream = new PrintStream(OutputStream.nullOutputStream());
+
+    @Benchmark
+    public void format() {
+        String resultJson = String.format(Responses.RESULT_JSON.getResponse(), String.valueOf(51904L), LocalDateTime.now(), results);
+        String resultHTTP = String.format(Responses.RESULT_HTTP.getResponse(), resultJson.getBytes().length, resultJson);
+        printStream.println(resultHTTP);
+    }
+
+    @Benchmark
+    public void writer() throws IOException {
+        ResponseWriter writer = ResponseWriter.get();
+        writer.writeResult(51904L, LocalDateTime.now(), mask, listR.length);
+        writer.flushTo(out);
+    }
+
+    @Benchmark
+    public void compact() throws IOException {
+        ResponseWriter writer = ResponseWriter.get();
+        writer.writeCompactResult(51904L, LocalDateTime.now(), mask, listR);
+        writer.flushTo(out);
+    }
+}
@@ -1,42 +1,129 @@
 package org;
 
-import java.time.Instant;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
 
 import com.fastcgi.FCGIInterface;
 
 public class FastCGIApp {
-    public static void main(String[] args) {
+    // маска в JSON - число: в double браузера точно помещаются только 53 бита
+    private static final int MAX_RADII = 53;
+    private static final String HISTORY_QUERY = "history";
+    private static final int MAX_HISTORY_PAGE = 10_000;
+
+    private static HistoryLog history;
+
+    public static void main(String[] args) throws IOException {
+        int metricsPeriod = Integer.getInteger("FCGI_METRICS_LOG", 0);
+        if (metricsPeriod > 0) {
+            Metrics.startLogging(metricsPeriod);
+        }
+
+        String historyPath = System.getProperty("FCGI_HISTORY");
+        if (historyPath != null) {
+            history = HistoryLog.open(Path.of(historyPath));
+        }
+
+        // без FCGI_PORT работаем как раньше, через FCGIInterface с его поведением по умолчанию
+        int threads = Integer.getInteger("FCGI_THREADS", 1);
+        Integer port = Integer.getInteger("FCGI_PORT");
+        if (threads > 1 && port == null) {
+            System.err.println("FCGI_THREADS is ignored: the multi-threaded server needs -DFCGI_PORT");
+        } else if (threads > 1) {
+            int maxConnections = Integer.getInteger("FCGI_MAX_CONNS", threads * 16);
+            new FastCGIServer(port, threads, maxConnections, FastCGIApp::handle).start();
+            return;
+        }
+
         FCGIInterface fcgi = new FCGIInterface();
                 
         while (fcgi.FCGIaccept() >= 0) {
-            try {
-                String queryParams = System.getProperties().getProperty("QUERY_STRING");
-                Params params = new Params(queryParams);
+            String queryParams = System.getProperties().getProperty("QUERY_STRING");
+            handle(queryParams, System.out);
+        }
+    }
 
-                validateParams(params);
-                
-                Instant startTime = Instant.now();
-                List<Boolean> result = calculate(params.getX(), params.getY(), params.getListR());
-                Instant endTime = Instant.now();
-
-                String resultJson = String.format(Responses.RESULT_JSON.getResponse(), String.valueOf(ChronoUnit.NANOS.between(startTime, endTime)), LocalDateTime.now(), result);
-                String resultHTTP = String.format(Responses.RESULT_HTTP.getResponse(), resultJson.getBytes().length, resultJson);
-                System.out.println(resultHTTP);
-            } catch (Exception e) {
-                String errorJson = String.format(Responses.ERROR_JSON.getResponse(), LocalDateTime.now(), e.getMessage());
-                String errorHTTP = String.format(Responses.ERROR_HTTP.getResponse(), errorJson.getBytes().length, errorJson);
-                System.out.println(errorHTTP);
+    static void handle(String queryParams, OutputStream out) throws IOException {
+        ResponseWriter writer = ResponseWriter.get();
+        if (Metrics.QUERY.equals(queryParams)) {
+            writer.writeJson(Metrics.toJson());
+            writer.flushTo(out);
+            return;
+        }
+        if (history != null && Params.hasFlag(queryParams, HISTORY_QUERY)) {
+            handleHistory(queryParams, writer, out);
+            return;
+        }
+
+        long writeStart;
+        try {
+            long parseStart = System.nanoTime();
+            Params params = new Params(queryParams);
+            long validateStart = Metrics.PARSE.since(parseStart);
+
+            validateParams(params);
+            long computeStart = Metrics.VALIDATE.since(validateStart);
+
+            long result = calculate(params.getX(), params.getY(), params.getListR());
+            writeStart = Metrics.COMPUTE.since(computeStart);
+
+            if (history != null) {
+                record(params, result);
+            }
+
+            if (params.isCompact()) {
+                writer.writeCompactResult(writeStart - computeStart, LocalDateTime.now(), result, params.getListR());
+            } else {
+                writer.writeResult(writeStart - computeStart, LocalDateTime.now(), result, params.getListR().length);
+            }
+            Metrics.OK.increment();
+        } catch (Exception e) {
+            writeStart = System.nanoTime();
+            writer.writeError(LocalDateTime.now(), e.getMessage());
+            Metrics.BAD_REQUEST.increment();
+        }
+        writer.flushTo(out);
+        Metrics.WRITE.since(writeStart);
+    }
+
+    private static void handleHistory(String queryParams, ResponseWriter writer, OutputStream out) throws IOException {
+        long offset;
+        long limit;
+        try {
+            offset = Params.longParam(queryParams, "offset", 0);
+            limit = Params.longParam(queryParams, "limit", 100);
+            if (offset < 0 || limit < 0 || limit > MAX_HISTORY_PAGE) {
+                throw new ValidateException("offset must be >= 0 and limit between 0 and " + MAX_HISTORY_PAGE);
             }
+        } catch (Exception e) {
+            writer.writeError(LocalDateTime.now(), e.getMessage());
+            writer.flushTo(out);
+            return;
+        }
+        writer.writeHistory(history.size(), history.records(offset, (int) limit), out);
+    }
+
+    // маски в журнале - по индексам HitTable.R_VALUES, а не по порядку listR в запросе
+    private static void record(Params params, long results) {
+        float[] listR = params.getListR();
+        int rMask = 0;
+        int resultMask = 0;
+        for (int i = 0; i < listR.length; i++) {
+            int bit = 1 << HitTable.rIndex(listR[i]);
+            rMask |= bit;
+            if ((results & 1L << i) != 0) {
+                resultMask |= bit;
+            }
+        }
+        if (!history.append(params.getX(), params.getY(), rMask, resultMask, System.currentTimeMillis())) {
+            Metrics.HISTORY_DROPPED.increment();
         }
     }
 
     private static void validateParams(Params params) throws ValidateException {
-        if (!Set.of(-3f, -2f, -1f, 0f, 1f, 2f, 3f, 4f, 5f).contains(params.getX())) {
+        if (HitTable.xIndex(params.getX()) < 0) {
             throw new ValidateException("X must be one of: [-3, -2, -1, 0, 1, 2, 3, 4, 5]");
         }
   
@@ -44,28 +131,36 @@ public class FastCGIApp {
             throw new ValidateException("Y must be between -5 and 3");
         }
    
-        if (params.getListR().isEmpty()) {
+        if (params.getListR().length == 0) {
             throw new ValidateException("ListR must not be empty");
         }
+
+        if (params.getListR().length > MAX_RADII) {
+            throw new ValidateException("ListR must contain at most " + MAX_RADII + " values");
+        }
         
-        Set<Float> validRValues = Set.of(1.0f, 1.5f, 2.0f, 2.5f, 3.0f);
-        for (Float r : params.getListR()) {
-            if (!validRValues.contains(r)) {
+        for (float r : params.getListR()) {
+            if (HitTable.rIndex(r) < 0) {
                 throw new ValidateException("R must be one of: [1, 1.5, 2, 2.5, 3]");
             }
         }
     }
 
-    private static List<Boolean> calculate(float x, float y, List<Float> listR) {
-        List<Boolean> results = new ArrayList<>();
-        for (Float r : listR) {
-            boolean pointResult = checkPointInArea(x, y, r);
-            results.add(pointResult);
+    // бит i результата - попадание для listR[i]
+    private static long calculate(float x, float y, float[] listR) {
+        long results = 0;
+        int xIndex = HitTable.xIndex(x);
+        for (int i = 0; i < listR.length; i++) {
+            if (HitTable.isHit(xIndex, HitTable.rIndex(listR[i]), y)) {
+                results |= 1L << i;
+            }
         }
         return results;
     }
 
-    private static boolean checkPointInArea(float x, float y, float r) {
+    // эталонная геометрия области: запросы её не вызывают, по ней строится HitTable
+    // и с ней сверяются HitTableTest и AreaCheckerBenchmark
+    static boolean checkPointInArea(float x, float y, float r) {
      
         boolean inRectangle = (x >= -r && x <= 0) && (y >= 0 && y <= r/2);
    
@@ -0,0 +1,285 @@
+package org;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Соединение читает свой поток, а запросы выполняются в пуле из threads потоков.
+ * Соединение занимает рабочий поток только на время запроса, поэтому постоянные
+ * (keep-conn) соединения веб-сервера не блокируют друг друга. Открытых
+ * соединений не больше maxConnections, лишние сразу закрываются.
+ */
+public class FastCGIServer {
+    private static final int VERSION = 1;
+
+    private static final int BEGIN_REQUEST = 1;
+    private static final int ABORT_REQUEST = 2;
+    private static final int END_REQUEST = 3;
+    private static final int PARAMS = 4;
+    private static final int STDIN = 5;
+    private static final int STDOUT = 6;
+    private static final int GET_VALUES = 9;
+    private static final int GET_VALUES_RESULT = 10;
+    private static final int UNKNOWN_TYPE = 11;
+
+    private static final int FLAG_KEEP_CONN = 1;
+    private static final int REQUEST_COMPLETE = 0;
+    private static final int MAX_CONTENT = 0xFFFF;
+
+    private final int port;
+    private final int threads;
+    private final int maxConnections;
+    private final Handler handler;
+
+    public interface Handler {
+        void handle(String query, OutputStream out) throws IOException;
+    }
+
+    public FastCGIServer(int port, int threads, int maxConnections, Handler handler) {
+        this.port = port;
+        this.threads = threads;
+        this.maxConnections = maxConnections;
+        this.handler = handler;
+    }
+
+    public void start() throws IOException {
+        run(new ServerSocket(port));
+    }
+
+    // принимает соединения, пока server не закроют: закрытый сокет останавливает сервер
+    void run(ServerSocket server) throws IOException {
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        ExecutorService connections = Executors.newCachedThreadPool();
+        Semaphore slots = new Semaphore(maxConnections);
+        try (server) {
+            while (true) {
+                Socket socket = server.accept();
+                if (!slots.tryAcquire()) {
+                    System.err.println("FastCGI connection rejected: " + maxConnections + " connections already open");
+                    socket.close();
+                    continue;
+                }
+                connections.execute(() -> {
+                    try {
+                        serve(socket, workers);
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+        } finally {
+            connections.shutdown();
+            workers.shutdown();
+        }
+    }
+
+    private void serve(Socket socket, ExecutorService workers) {
+        try (socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            RequestState state = null;
+
+            while (true) {
+                int version = in.read();
+                if (version < 0) {
+                    return;
+                }
+                int type = in.readUnsignedByte();
+                int requestId = in.readUnsignedShort();
+                int contentLength = in.readUnsignedShort();
+                int paddingLength = in.readUnsignedByte();
+                in.readUnsignedByte();
+
+                byte[] content = new byte[contentLength];
+                in.readFully(content);
+                in.skipNBytes(paddingLength);
+
+                switch (type) {
+                    case BEGIN_REQUEST -> state = new RequestState(requestId, (content[2] & FLAG_KEEP_CONN) != 0);
+                    case PARAMS -> {
+                        if (state != null && contentLength > 0) {
+                            state.params.writeBytes(content);
+                        }
+                    }
+                    case STDIN -> {
+                        if (state != null && contentLength == 0) {
+                            RequestState request = state;
+                            await(workers.submit(() -> {
+                                respond(out, request);
+                                return null;
+                            }));
+                            if (!state.keepConn) {
+                                return;
+                            }
+                            state = null;
+                        }
+                    }
+                    case ABORT_REQUEST -> {
+                        if (state != null) {
+                            writeEndRequest(out, state.requestId);
+                            out.flush();
+                            state = null;
+                        }
+                    }
+                    case GET_VALUES -> writeValues(out);
+                    default -> writeUnknownType(out, type);
+                }
+            }
+        } catch (EOFException e) {
+            // веб-сервер закрыл соединение
+        } catch (IOException e) {
+            System.err.println("FastCGI connection failed: " + e.getMessage());
+        }
+    }
+
+    // соединение не мультиплексируется, следующую запись читаем только после ответа
+    private static void await(Future<?> response) throws IOException {
+        try {
+            response.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the response", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private void respond(OutputStream out, RequestState state) throws IOException {
+        Map<String, String> params = decodeParams(state.params.toByteArray());
+        handler.handle(params.get("QUERY_STRING"), new StdoutStream(out, state.requestId));
+        writeHeader(out, STDOUT, state.requestId, 0);
+        writeEndRequest(out, state.requestId);
+        out.flush();
+    }
+
+    private static Map<String, String> decodeParams(byte[] data) {
+        Map<String, String> params = new HashMap<>();
+        int position = 0;
+        while (position < data.length) {
+            int nameLength = data[position] & 0xFF;
+            if (nameLength > 0x7F) {
+                nameLength = readLength(data, position);
+                position += 4;
+            } else {
+                position++;
+            }
+            int valueLength = data[position] & 0xFF;
+            if (valueLength > 0x7F) {
+                valueLength = readLength(data, position);
+                position += 4;
+            } else {
+                position++;
+            }
+            String name = new String(data, position, nameLength, StandardCharsets.UTF_8);
+            position += nameLength;
+            String value = new String(data, position, valueLength, StandardCharsets.UTF_8);
+            position += valueLength;
+            params.put(name, value);
+        }
+        return params;
+    }
+
+    private static int readLength(byte[] data, int position) {
+        return ((data[position] & 0x7F) << 24)
+                | ((data[position + 1] & 0xFF) << 16)
+                | ((data[position + 2] & 0xFF) << 8)
+                | (data[position + 3] & 0xFF);
+    }
+
+    private void writeValues(OutputStream out) throws IOException {
+        ParamsBuffer body = new ParamsBuffer();
+        body.writePair("FCGI_MAX_CONNS", String.valueOf(maxConnections));
+        body.writePair("FCGI_MAX_REQS", String.valueOf(maxConnections));
+        body.writePair("FCGI_MPXS_CONNS", "0");
+        writeHeader(out, GET_VALUES_RESULT, 0, body.size());
+        body.writeTo(out);
+        out.flush();
+    }
+
+    private static void writeUnknownType(OutputStream out, int type) throws IOException {
+        writeHeader(out, UNKNOWN_TYPE, 0, 8);
+        out.write(new byte[] {(byte) type, 0, 0, 0, 0, 0, 0, 0});
+        out.flush();
+    }
+
+    private static void writeEndRequest(OutputStream out, int requestId) throws IOException {
+        writeHeader(out, END_REQUEST, requestId, 8);
+        out.write(new byte[] {0, 0, 0, 0, REQUEST_COMPLETE, 0, 0, 0});
+    }
+
+    private static void writeHeader(OutputStream out, int type, int requestId, int contentLength) throws IOException {
+        out.write(VERSION);
+        out.write(type);
+        out.write(requestId >> 8);
+        out.write(requestId);
+        out.write(contentLength >> 8);
+        out.write(contentLength);
+        out.write(0);
+        out.write(0);
+    }
+
+    // каждый write уходит в сокет одной или несколькими записями FCGI_STDOUT
+    private static class StdoutStream extends OutputStream {
+        private final OutputStream out;
+        private final int requestId;
+
+        StdoutStream(OutputStream out, int requestId) {
+            this.out = out;
+            this.requestId = requestId;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            for (int end = offset + length; offset < end; offset += MAX_CONTENT) {
+                int count = Math.min(MAX_CONTENT, end - offset);
+                writeHeader(out, STDOUT, requestId, count);
+                out.write(bytes, offset, count);
+            }
+        }
+    }
+
+    private static class RequestState {
+        final int requestId;
+        final boolean keepConn;
+        final ParamsBuffer params = new ParamsBuffer();
+
+        RequestState(int requestId, boolean keepConn) {
+            this.requestId = requestId;
+            this.keepConn = keepConn;
+        }
+    }
+
+    private static class ParamsBuffer extends ByteArrayOutputStream {
+        void writePair(String name, String value) {
+            byte[] nameBytes = name.getBytes(StandardCharsets.US_ASCII);
+            byte[] valueBytes = value.getBytes(StandardCharsets.US_ASCII);
+            write(nameBytes.length);
+            write(valueBytes.length);
+            writeBytes(nameBytes);
+            writeBytes(valueBytes);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Журнал проверок: файл, отображённый в память, в который только дописываются
+// записи фиксированного размера (little-endian):
+//
+//   0  float x
+//   4  float y
+//   8  byte  rMask      - бит i: в запросе был радиус HitTable.R_VALUES[i]
+//   9  byte  resultMask - бит i: попадание при радиусе HitTable.R_VALUES[i]
+//   10 6 байт выравнивания (10-15), чтобы timestamp лёг на границу 8 байт
+//   16 long  timestamp  - миллисекунды с эпохи
+//
+// Заголовок - MAGIC и число записей. Число обновляется после записи, поэтому
+// оборванная при падении запись просто не учитывается.
+public class HistoryLog {
+    public static final int RECORD_SIZE = 24;
+    static final int HEADER_SIZE = 16;
+    static final int MAGIC = 0x4C414231;
+
+    private static final int COUNT_OFFSET = 8;
+    private static final long INITIAL_CAPACITY = 1 << 16;
+    // один MappedByteBuffer не больше 2 ГБ
+    private static final long MAX_RECORDS = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+
+    private final FileChannel channel;
+    private volatile MappedByteBuffer buffer;
+    private volatile long count;
+
+    private HistoryLog(FileChannel channel, MappedByteBuffer buffer, long count) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.count = count;
+    }
+
+    public static HistoryLog open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean created = channel.size() < HEADER_SIZE;
+        long capacity = Math.max(channel.size(), offset(INITIAL_CAPACITY));
+        MappedByteBuffer buffer = map(channel, FileChannel.MapMode.READ_WRITE, capacity);
+
+        if (created) {
+            buffer.putInt(0, MAGIC);
+            buffer.putLong(COUNT_OFFSET, 0);
+        } else if (buffer.getInt(0) != MAGIC) {
+            channel.close();
+            throw new IOException(path + " is not a history log");
+        }
+        return new HistoryLog(channel, buffer, buffer.getLong(COUNT_OFFSET));
+    }
+
+    // false, если журнал заполнен или файл не удалось расширить
+    public synchronized boolean append(float x, float y, int rMask, int resultMask, long timestamp) {
+        long index = count;
+        if (index >= MAX_RECORDS) {
+            return false;
+        }
+        MappedByteBuffer target = buffer;
+        int offset = (int) offset(index);
+        if (offset + RECORD_SIZE > target.capacity()) {
+            try {
+                long capacity = Math.min(Math.max(index * 2, index + 1), MAX_RECORDS);
+                target = map(channel, FileChannel.MapMode.READ_WRITE, offset(capacity));
+            } catch (IOException e) {
+                return false;
+            }
+            buffer = target;
+        }
+
+        target.putFloat(offset, x);
+        target.putFloat(offset + 4, y);
+        target.put(offset + 8, (byte) rMask);
+        target.put(offset + 9, (byte) resultMask);
+        target.putLong(offset + 16, timestamp);
+        target.putLong(COUNT_OFFSET, index + 1);
+        count = index + 1;
+        return true;
+    }
+
+    public long size() {
+        return count;
+    }
+
+    // записи [from, from + limit) без копирования - срез отображённого файла
+    public ByteBuffer records(long from, int limit) {
+        long total = count;
+        ByteBuffer records = buffer.duplicate();
+        if (from < 0 || from >= total || limit <= 0) {
+            return records.limit(0);
+        }
+        long to = Math.min(total, from + limit);
+        records.limit((int) offset(to)).position((int) offset(from));
+        return records.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    static long offset(long index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    static MappedByteBuffer map(FileChannel channel, FileChannel.MapMode mode, long size) throws IOException {
+        MappedByteBuffer buffer = channel.map(mode, 0, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+}
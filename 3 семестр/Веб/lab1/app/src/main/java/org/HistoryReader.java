@@ -0,0 +1,78 @@
+package org;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Чтение журнала HistoryLog только на чтение, в том числе из другого процесса.
+// Записи обходятся прямыми get по отображённому буферу, без объектов на запись.
+public class HistoryReader implements AutoCloseable {
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long count;
+
+    public interface Visitor {
+        void visit(float x, float y, int rMask, int resultMask, long timestamp);
+    }
+
+    public HistoryReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        buffer = HistoryLog.map(channel, FileChannel.MapMode.READ_ONLY, channel.size());
+        if (channel.size() < HistoryLog.HEADER_SIZE || buffer.getInt(0) != HistoryLog.MAGIC) {
+            channel.close();
+            throw new IOException(path + " is not a history log");
+        }
+        long written = buffer.getLong(8);
+        count = Math.min(written, (channel.size() - HistoryLog.HEADER_SIZE) / HistoryLog.RECORD_SIZE);
+    }
+
+    public long size() {
+        return count;
+    }
+
+    public void scan(Visitor visitor) {
+        scan(0, count, visitor);
+    }
+
+    public void scan(long from, long limit, Visitor visitor) {
+        long to = Math.min(count, from + limit);
+        for (long index = Math.max(0, from); index < to; index++) {
+            int offset = (int) HistoryLog.offset(index);
+            visitor.visit(
+                buffer.getFloat(offset),
+                buffer.getFloat(offset + 4),
+                buffer.get(offset + 8),
+                buffer.get(offset + 9),
+                buffer.getLong(offset + 16)
+            );
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // java -cp FastCGIApp.jar org.HistoryReader history.bin - доля попаданий по радиусам
+    public static void main(String[] args) throws IOException {
+        long[] checks = new long[HitTable.R_VALUES.length];
+        long[] hits = new long[HitTable.R_VALUES.length];
+        try (HistoryReader reader = new HistoryReader(Path.of(args[0]))) {
+            long start = System.nanoTime();
+            reader.scan((x, y, rMask, resultMask, timestamp) -> {
+                for (int i = 0; i < checks.length; i++) {
+                    checks[i] += rMask >>> i & 1;
+                    hits[i] += resultMask >>> i & 1;
+                }
+            });
+            long elapsed = System.nanoTime() - start;
+
+            System.out.printf("records: %d, scanned in %d ms%n", reader.size(), elapsed / 1_000_000);
+            for (int i = 0; i < checks.length; i++) {
+                System.out.printf("r=%s: %d checks, %d hits%n", HitTable.R_VALUES[i], checks[i], hits[i]);
+            }
+        }
+    }
+}
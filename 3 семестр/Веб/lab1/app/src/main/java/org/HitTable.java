@@ -0,0 +1,98 @@
+package org;
+
+// X и R принимают конечный набор значений, поэтому для каждой пары (x, r)
+// попадания по Y образуют один отрезок [lo, hi]. Границы ищутся по самой
+// геометрии checkPointInArea, так что результат совпадает с ней до бита.
+public class HitTable {
+    static final float[] X_VALUES = {-3f, -2f, -1f, 0f, 1f, 2f, 3f, 4f, 5f};
+    static final float[] R_VALUES = {1f, 1.5f, 2f, 2.5f, 3f};
+    static final float Y_MIN = -5f;
+    static final float Y_MAX = 3f;
+
+    private static final float[] LO = new float[X_VALUES.length * R_VALUES.length];
+    private static final float[] HI = new float[X_VALUES.length * R_VALUES.length];
+
+    static {
+        for (int xi = 0; xi < X_VALUES.length; xi++) {
+            for (int ri = 0; ri < R_VALUES.length; ri++) {
+                float x = X_VALUES[xi];
+                float r = R_VALUES[ri];
+                int cell = xi * R_VALUES.length + ri;
+
+                if (FastCGIApp.checkPointInArea(x, 0f, r)) {
+                    LO[cell] = lowestHit(x, r);
+                    HI[cell] = highestHit(x, r);
+                } else {
+                    LO[cell] = Float.POSITIVE_INFINITY;
+                    HI[cell] = Float.NEGATIVE_INFINITY;
+                }
+            }
+        }
+    }
+
+    // -1, если x не из X_VALUES (в том числе -0.0 и NaN, как у Set.contains)
+    public static int xIndex(float x) {
+        int index = (int) x + 3;
+        if (index < 0 || index >= X_VALUES.length) {
+            return -1;
+        }
+        return Float.floatToIntBits(X_VALUES[index]) == Float.floatToIntBits(x) ? index : -1;
+    }
+
+    public static int rIndex(float r) {
+        int index = (int) (r * 2) - 2;
+        if (index < 0 || index >= R_VALUES.length) {
+            return -1;
+        }
+        return Float.floatToIntBits(R_VALUES[index]) == Float.floatToIntBits(r) ? index : -1;
+    }
+
+    public static boolean isHit(int xIndex, int rIndex, float y) {
+        int cell = xIndex * R_VALUES.length + rIndex;
+        return y >= LO[cell] && y <= HI[cell];
+    }
+
+    private static float lowestHit(float x, float r) {
+        int miss = key(Y_MIN);
+        int hit = key(0f);
+        if (FastCGIApp.checkPointInArea(x, Y_MIN, r)) {
+            return Y_MIN;
+        }
+        while (hit - miss > 1) {
+            int middle = miss + (hit - miss) / 2;
+            if (FastCGIApp.checkPointInArea(x, value(middle), r)) {
+                hit = middle;
+            } else {
+                miss = middle;
+            }
+        }
+        return value(hit);
+    }
+
+    private static float highestHit(float x, float r) {
+        int hit = key(0f);
+        int miss = key(Y_MAX);
+        if (FastCGIApp.checkPointInArea(x, Y_MAX, r)) {
+            return Y_MAX;
+        }
+        while (miss - hit > 1) {
+            int middle = miss + (hit - miss) / 2;
+            if (FastCGIApp.checkPointInArea(x, value(middle), r)) {
+                hit = middle;
+            } else {
+                miss = middle;
+            }
+        }
+        return value(hit);
+    }
+
+    // отображение float в int с сохранением порядка
+    private static int key(float value) {
+        int bits = Float.floatToIntBits(value);
+        return bits >= 0 ? bits : bits ^ 0x7FFFFFFF;
+    }
+
+    private static float value(int key) {
+        return Float.intBitsToFloat(key >= 0 ? key : key ^ 0x7FFFFFFF);
+    }
+}
@@ -0,0 +1,61 @@
+package org;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Время фаз обработки запроса (в наносекундах) и счётчики ответов.
+// Отдаются по запросу ?metrics или периодически пишутся в stderr.
+public class Metrics {
+    public static final String QUERY = "metrics";
+
+    public static final LatencyHistogram PARSE = new LatencyHistogram();
+    public static final LatencyHistogram VALIDATE = new LatencyHistogram();
+    public static final LatencyHistogram COMPUTE = new LatencyHistogram();
+    public static final LatencyHistogram WRITE = new LatencyHistogram();
+
+    public static final LongAdder OK = new LongAdder();
+    public static final LongAdder BAD_REQUEST = new LongAdder();
+    public static final LongAdder HISTORY_DROPPED = new LongAdder();
+
+    private Metrics() {}
+
+    // stdout занят ответами FastCGI, поэтому лог идёт в stderr
+    public static void startLogging(int periodSeconds) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(
+            () -> System.err.println("metrics " + toJson()),
+            periodSeconds, periodSeconds, TimeUnit.SECONDS
+        );
+    }
+
+    public static String toJson() {
+        StringBuilder json = new StringBuilder(512);
+        json.append("{\"responses\":{\"200\":").append(OK.sum())
+            .append(",\"400\":").append(BAD_REQUEST.sum()).append('}')
+            .append(",\"historyDropped\":").append(HISTORY_DROPPED.sum());
+        append(json, "parse", PARSE);
+        append(json, "validate", VALIDATE);
+        append(json, "compute", COMPUTE);
+        append(json, "write", WRITE);
+        return json.append('}').toString();
+    }
+
+    private static void append(StringBuilder json, String name, LatencyHistogram histogram) {
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        json.append(",\"").append(name).append("\":{")
+            .append("\"count\":").append(snapshot.getCount())
+            .append(",\"mean\":").append(snapshot.getMean())
+            .append(",\"p50\":").append(snapshot.percentile(50))
+            .append(",\"p90\":").append(snapshot.percentile(90))
+            .append(",\"p99\":").append(snapshot.percentile(99))
+            .append(",\"p999\":").append(snapshot.percentile(99.9))
+            .append(",\"max\":").append(snapshot.getMax())
+            .append('}');
+    }
+}
@@ -6,21 +6,179 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.stream.Collectors;
-import java.util.List;
 
 public class Params {
+    private static final float[] POW10 = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+    private static final int MAX_EXACT_MANTISSA = 1 << 24;
+
     float x, y;
-    List<Float> listR;
-    
+    float[] listR;
+    boolean compact;
+
+    Params() {}
+
     public Params(String query){
-        if (query != null) {
-            Map<String, String> params = splitQuery(query);
-            x = Float.parseFloat(params.get("x"));
-            y = Float.parseFloat(params.get("y"));
-            listR = parseListQueryParams(params.get("listR"));
+        if (query == null) {
+            throw new NumberFormatException("Query string is empty");
+        }
+        if (!scan(query)) {
+            parseWithDecoder(query);
         }
     }
 
+    // false - в запросе есть что-то кроме простых десятичных чисел, разбираем через URLDecoder
+    private boolean scan(String query) {
+        boolean hasX = false, hasY = false;
+        int length = query.length();
+        int start = 0;
+
+        while (start <= length) {
+            int end = query.indexOf('&', start);
+            if (end < 0) {
+                end = length;
+            }
+            int eq = query.indexOf('=', start);
+            if (eq < 0 || eq > end) {
+                return false;
+            }
+
+            int percent = query.indexOf('%', start);
+            if (percent >= 0 && percent < eq) {
+                return false;
+            }
+
+            if (isKey(query, start, eq, "x")) {
+                x = parseFloat(query, eq + 1, end);
+                if (Float.isNaN(x)) {
+                    return false;
+                }
+                hasX = true;
+            } else if (isKey(query, start, eq, "y")) {
+                y = parseFloat(query, eq + 1, end);
+                if (Float.isNaN(y)) {
+                    return false;
+                }
+                hasY = true;
+            } else if (isKey(query, start, eq, "listR")) {
+                if (!scanList(query, eq + 1, end)) {
+                    return false;
+                }
+            } else if (isKey(query, start, eq, "format")) {
+                compact = isKey(query, eq + 1, end, "compact");
+            }
+            start = end + 1;
+        }
+
+        if (!hasX || !hasY || listR == null) {
+            throw new NumberFormatException("Query must contain x, y and listR");
+        }
+        return true;
+    }
+
+    private boolean scanList(String query, int from, int to) {
+        int count = 1;
+        for (int i = from; i < to; i++) {
+            if (separatorLength(query, i, to) > 0) {
+                count++;
+            }
+        }
+
+        float[] values = new float[count];
+        int index = 0;
+        int tokenStart = from;
+        for (int i = from; i <= to; i++) {
+            int separator = i < to ? separatorLength(query, i, to) : 1;
+            if (separator > 0) {
+                float value = parseFloat(query, tokenStart, i);
+                if (Float.isNaN(value)) {
+                    return false;
+                }
+                values[index++] = value;
+                i += separator - 1;
+                tokenStart = i + 1;
+            }
+        }
+        listR = values;
+        return true;
+    }
+
+    private static int separatorLength(String query, int i, int to) {
+        char c = query.charAt(i);
+        if (c == ',') {
+            return 1;
+        }
+        if (c == '%' && i + 2 < to && query.charAt(i + 1) == '2'
+                && (query.charAt(i + 2) == 'C' || query.charAt(i + 2) == 'c')) {
+            return 3;
+        }
+        return 0;
+    }
+
+    // мантисса до 2^24 и 10^k до 10^10 точно представимы во float, поэтому одно
+    // деление даёт тот же результат, что и Float.parseFloat; иначе NaN
+    private static float parseFloat(String s, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            negative = s.charAt(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fraction = -1;
+        for (; i < to; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (fraction >= 0) {
+                    fraction++;
+                }
+                if (mantissa > MAX_EXACT_MANTISSA) {
+                    return Float.NaN;
+                }
+            } else if (c == '.' && fraction < 0) {
+                fraction = 0;
+            } else {
+                return Float.NaN;
+            }
+        }
+
+        if (digits == 0 || fraction >= POW10.length) {
+            return Float.NaN;
+        }
+        float value = fraction > 0 ? mantissa / POW10[fraction] : mantissa;
+        return negative ? -value : value;
+    }
+
+    private static boolean isKey(String query, int from, int to, String key) {
+        return to - from == key.length() && query.startsWith(key, from);
+    }
+
+    // для служебных запросов вида history&offset=0&limit=100
+    static boolean hasFlag(String query, String flag) {
+        return query != null && query.startsWith(flag)
+            && (query.length() == flag.length() || query.charAt(flag.length()) == '&');
+    }
+
+    static long longParam(String query, String key, long defaultValue) {
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && isKey(pair, 0, eq, key)) {
+                return Long.parseLong(pair.substring(eq + 1));
+            }
+        }
+        return defaultValue;
+    }
+
+    void parseWithDecoder(String query) {
+        Map<String, String> params = splitQuery(query);
+        x = Float.parseFloat(params.get("x"));
+        y = Float.parseFloat(params.get("y"));
+        listR = parseListQueryParams(params.get("listR"));
+        compact = "compact".equals(params.get("format"));
+    }
 
     private static Map<String, String> splitQuery(String query) {
         return Arrays.stream(query.split("&"))
@@ -35,13 +193,17 @@ public class Params {
             );
     }
 
-    private static List<Float> parseListQueryParams(String listParams) {
-        return Arrays.stream(listParams.split(","))
-            .map(Float::parseFloat)
-            .collect(Collectors.toList());
+    private static float[] parseListQueryParams(String listParams) {
+        String[] parts = listParams.split(",");
+        float[] values = new float[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Float.parseFloat(parts[i]);
+        }
+        return values;
     }
 
     public float getX() {return x;}
     public float getY() {return y;}
-    public List<Float> getListR() {return listR;}
+    public float[] getListR() {return listR;}
+    public boolean isCompact() {return compact;}
 }
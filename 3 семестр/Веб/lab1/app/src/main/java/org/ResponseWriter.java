@@ -0,0 +1,232 @@
+package org;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+public class ResponseWriter {
+    private static final byte[][] RESULT_HTTP = split(Responses.RESULT_HTTP);
+    private static final byte[][] ERROR_HTTP = split(Responses.ERROR_HTTP);
+    private static final byte[][] HISTORY_HTTP = split(Responses.HISTORY_HTTP);
+    private static final byte[][] RESULT_JSON = split(Responses.RESULT_JSON);
+    private static final byte[][] COMPACT_JSON = split(Responses.COMPACT_JSON);
+    private static final byte[][] ERROR_JSON = split(Responses.ERROR_JSON);
+
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[][] R_LABELS = labels(HitTable.R_VALUES);
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+    private static final ThreadLocal<ResponseWriter> WRITERS = ThreadLocal.withInitial(ResponseWriter::new);
+
+    private final Buffer body = new Buffer(256);
+    private final Buffer response = new Buffer(512);
+    private final byte[] chunk = new byte[8192];
+
+    public static ResponseWriter get() {
+        return WRITERS.get();
+    }
+
+    // results - битовая маска: бит i соответствует i-му радиусу из запроса
+    public void writeResult(long time, LocalDateTime now, long results, int count) {
+        body.reset();
+        body.write(RESULT_JSON[0]);
+        body.writeLong(time);
+        body.write(RESULT_JSON[1]);
+        body.writeDateTime(now);
+        body.write(RESULT_JSON[2]);
+        body.write('[');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                body.write(',');
+                body.write(' ');
+            }
+            body.write((results & 1L << i) != 0 ? TRUE : FALSE);
+        }
+        body.write(']');
+        body.write(RESULT_JSON[3]);
+        wrap(RESULT_HTTP);
+    }
+
+    public void writeCompactResult(long time, LocalDateTime now, long results, float[] listR) {
+        body.reset();
+        body.write(COMPACT_JSON[0]);
+        body.writeLong(time);
+        body.write(COMPACT_JSON[1]);
+        body.writeDateTime(now);
+        body.write(COMPACT_JSON[2]);
+        body.writeLong(results);
+        body.write(COMPACT_JSON[3]);
+        for (int i = 0; i < listR.length; i++) {
+            if (i > 0) {
+                body.write(',');
+            }
+            body.write(R_LABELS[HitTable.rIndex(listR[i])]);
+        }
+        body.write(COMPACT_JSON[4]);
+        wrap(RESULT_HTTP);
+    }
+
+    public void writeJson(String json) {
+        body.reset();
+        body.write(json.getBytes(StandardCharsets.UTF_8));
+        wrap(RESULT_HTTP);
+    }
+
+    public void writeError(LocalDateTime now, String message) {
+        body.reset();
+        body.write(ERROR_JSON[0]);
+        body.writeDateTime(now);
+        body.write(ERROR_JSON[1]);
+        body.write(String.valueOf(message).getBytes(StandardCharsets.UTF_8));
+        body.write(ERROR_JSON[2]);
+        wrap(ERROR_HTTP);
+    }
+
+    // записи не собираются в буфер ответа, а копируются в out прямо из среза файла
+    public void writeHistory(long total, ByteBuffer records, OutputStream out) throws IOException {
+        response.reset();
+        response.write(HISTORY_HTTP[0]);
+        response.writeLong(total);
+        response.write(HISTORY_HTTP[1]);
+        response.writeLong(records.remaining());
+        response.write(HISTORY_HTTP[2]);
+        out.write(response.bytes, 0, response.length);
+
+        while (records.hasRemaining()) {
+            int count = Math.min(records.remaining(), chunk.length);
+            records.get(chunk, 0, count);
+            out.write(chunk, 0, count);
+        }
+
+        response.reset();
+        response.write(HISTORY_HTTP[3]);
+        response.write(LINE_SEPARATOR);
+        flushTo(out);
+    }
+
+    public void flushTo(OutputStream out) throws IOException {
+        out.write(response.bytes, 0, response.length);
+        out.flush();
+    }
+
+    public int length() {
+        return response.length;
+    }
+
+    private void wrap(byte[][] template) {
+        response.reset();
+        response.write(template[0]);
+        response.writeLong(body.length);
+        response.write(template[1]);
+        response.write(body.bytes, 0, body.length);
+        response.write(template[2]);
+        response.write(LINE_SEPARATOR);
+    }
+
+    // шаблон из Responses, разрезанный по %s/%d на константные куски
+    private static byte[][] split(Responses template) {
+        String[] parts = template.getResponse().split("%[sd]", -1);
+        byte[][] segments = new byte[parts.length][];
+        for (int i = 0; i < parts.length; i++) {
+            segments[i] = parts[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return segments;
+    }
+
+    private static byte[][] labels(float[] values) {
+        byte[][] labels = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            labels[i] = Float.toString(values[i]).getBytes(StandardCharsets.US_ASCII);
+        }
+        return labels;
+    }
+
+    private static class Buffer {
+        byte[] bytes;
+        int length;
+
+        Buffer(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        void reset() {
+            length = 0;
+        }
+
+        void write(int b) {
+            ensure(1);
+            bytes[length++] = (byte) b;
+        }
+
+        void write(byte[] source) {
+            write(source, 0, source.length);
+        }
+
+        void write(byte[] source, int offset, int count) {
+            ensure(count);
+            System.arraycopy(source, offset, bytes, length, count);
+            length += count;
+        }
+
+        void writeLong(long value) {
+            if (value < 0) {
+                write('-');
+                value = -value;
+            }
+            int digits = 1;
+            for (long rest = value / 10; rest > 0; rest /= 10) {
+                digits++;
+            }
+            writeDigits(value, digits);
+        }
+
+        // тот же формат, что и LocalDateTime.toString()
+        void writeDateTime(LocalDateTime time) {
+            writeDigits(time.getYear(), 4);
+            write('-');
+            writeDigits(time.getMonthValue(), 2);
+            write('-');
+            writeDigits(time.getDayOfMonth(), 2);
+            write('T');
+            writeDigits(time.getHour(), 2);
+            write(':');
+            writeDigits(time.getMinute(), 2);
+
+            int second = time.getSecond();
+            int nano = time.getNano();
+            if (second > 0 || nano > 0) {
+                write(':');
+                writeDigits(second, 2);
+                if (nano > 0) {
+                    write('.');
+                    if (nano % 1_000_000 == 0) {
+                        writeDigits(nano / 1_000_000, 3);
+                    } else if (nano % 1000 == 0) {
+                        writeDigits(nano / 1000, 6);
+                    } else {
+                        writeDigits(nano, 9);
+                    }
+                }
+            }
+        }
+
+        private void writeDigits(long value, int digits) {
+            ensure(digits);
+            for (int i = length + digits - 1; i >= length; i--) {
+                bytes[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            length += digits;
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+    }
+}
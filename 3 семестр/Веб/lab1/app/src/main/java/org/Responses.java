@@ -8,6 +8,15 @@ public enum Responses {
         %s\r
         """),
 
+        // тело - записи HistoryLog как есть, по HistoryLog.RECORD_SIZE байт
+        HISTORY_HTTP("""
+        HTTP/1.1 200 OK\r
+        Content-Type: application/octet-stream\r
+        X-History-Total: %d\r
+        Content-Length: %d\r\n
+        %s\r
+        """),
+
         ERROR_HTTP("""
         HTTP/1.1 400 Bad Request\r
         Content-Type: application/json\r
@@ -22,7 +31,11 @@ public enum Responses {
             "results":%s
         }
         """),
-        
+
+        // бит i маски - попадание для r[i]
+        COMPACT_JSON("""
+        {"time":"%s","now":"%s","mask":%d,"r":[%s]}"""),
+
         ERROR_JSON("""
         {
             "now":"%s",
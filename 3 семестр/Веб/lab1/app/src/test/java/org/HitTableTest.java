@@ -0,0 +1,80 @@
+package org;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+// HitTable должна совпадать с checkPointInArea во всей области: каждая
+// клетка (x, r), сетка по Y и по ULPS значений с каждой стороны от границ фигур
+public class HitTableTest {
+    private static final float GRID_STEP = 1f / 64;
+    private static final int ULPS = 64;
+
+    @Test
+    public void matchesGeometryOnGrid() {
+        forEachCell((x, r) -> {
+            for (float y = HitTable.Y_MIN; y <= HitTable.Y_MAX; y += GRID_STEP) {
+                assertSameHit(x, y, r);
+            }
+        });
+    }
+
+    @Test
+    public void matchesGeometryAroundBoundaries() {
+        forEachCell((x, r) -> {
+            float[] boundaries = {
+                HitTable.Y_MIN, HitTable.Y_MAX, 0f, -0f, r / 2, -r / 2, -x - r / 2,
+                (float) -Math.sqrt(Math.max(0, r * r - x * x)),
+            };
+            for (float boundary : boundaries) {
+                float y = boundary;
+                for (int i = 0; i < ULPS; i++) {
+                    y = Math.nextDown(y);
+                }
+                for (int i = 0; i <= 2 * ULPS; i++, y = Math.nextUp(y)) {
+                    if (y >= HitTable.Y_MIN && y <= HitTable.Y_MAX) {
+                        assertSameHit(x, y, r);
+                    }
+                }
+            }
+        });
+    }
+
+    @Test
+    public void indexesOnlyAllowedValues() {
+        for (int i = 0; i < HitTable.X_VALUES.length; i++) {
+            assertEquals(i, HitTable.xIndex(HitTable.X_VALUES[i]));
+        }
+        for (int i = 0; i < HitTable.R_VALUES.length; i++) {
+            assertEquals(i, HitTable.rIndex(HitTable.R_VALUES[i]));
+        }
+
+        float[] rejected = {-0f, Float.NaN, Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY,
+            -4f, 6f, 0.5f, Math.nextUp(1f), Math.nextDown(3f)};
+        for (float value : rejected) {
+            assertEquals("x " + value, -1, HitTable.xIndex(value));
+        }
+        float[] rejectedR = {-0f, 0f, Float.NaN, 0.5f, 1.25f, 3.5f, Math.nextUp(1f), Math.nextDown(2.5f)};
+        for (float value : rejectedR) {
+            assertEquals("r " + value, -1, HitTable.rIndex(value));
+        }
+    }
+
+    private static void assertSameHit(float x, float y, float r) {
+        assertEquals("x=" + x + " y=" + y + " r=" + r,
+            FastCGIApp.checkPointInArea(x, y, r),
+            HitTable.isHit(HitTable.xIndex(x), HitTable.rIndex(r), y));
+    }
+
+    private static void forEachCell(CellCheck check) {
+        for (float x : HitTable.X_VALUES) {
+            for (float r : HitTable.R_VALUES) {
+                check.run(x, r);
+            }
+        }
+    }
+
+    private interface CellCheck {
+        void run(float x, float r);
+    }
+}
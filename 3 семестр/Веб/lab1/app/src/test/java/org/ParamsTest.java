@@ -0,0 +1,92 @@
+package org;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+
+// быстрый разбор Params должен давать те же float, что и Float.parseFloat,
+// и те же поля, что и разбор через URLDecoder
+public class ParamsTest {
+    private static final int RANDOM_VALUES = 200_000;
+
+    @Test
+    public void parsesNumbersLikeParseFloat() {
+        for (String value : values()) {
+            Params params = new Params("x=" + value + "&y=" + value + "&listR=" + value);
+            float expected = Float.parseFloat(value);
+            assertSameFloat(value, expected, params.getX());
+            assertSameFloat(value, expected, params.getY());
+            assertSameFloat(value, expected, params.getListR()[0]);
+        }
+    }
+
+    @Test
+    public void parsesListsLikeParseFloat() {
+        List<String> values = values();
+        for (int i = 0; i + 3 <= values.size(); i += 3) {
+            String list = values.get(i) + "," + values.get(i + 1) + "%2C" + values.get(i + 2);
+            float[] listR = new Params("x=1&y=0&listR=" + list).getListR();
+            assertEquals(list, 3, listR.length);
+            for (int j = 0; j < 3; j++) {
+                assertSameFloat(list, Float.parseFloat(values.get(i + j)), listR[j]);
+            }
+        }
+    }
+
+    @Test
+    public void matchesDecoderOnWholeQueries() {
+        String[] queries = {
+            "x=1&y=-0.5&listR=1,2,3",
+            "x=1&y=-0.5&listR=1%2C1.5%2C3",
+            "x=1&y=-0.5&listR=1%2c1.5",
+            "y=1.25&x=0&listR=1&listR=3",
+            "x=-3&y=2.99999&listR=2.5&format=compact",
+            "x=1&y=1e0&listR=1",
+            "x=1&y=+1&listR=1",
+            "x=%31&y=0&listR=1",
+        };
+        for (String query : queries) {
+            Params fast = new Params(query);
+            Params decoded = new Params();
+            decoded.parseWithDecoder(query);
+            assertSameFloat(query, decoded.getX(), fast.getX());
+            assertSameFloat(query, decoded.getY(), fast.getY());
+            assertArrayEquals(query, decoded.getListR(), fast.getListR(), 0f);
+            assertEquals(query, decoded.isCompact(), fast.isCompact());
+        }
+    }
+
+    // значения области X, Y и R, границы фигур, края точной мантиссы и случайные десятичные
+    private static List<String> values() {
+        List<String> values = new ArrayList<>(List.of(
+            "0", "-0", "+0", "0.", ".5", "-.5", "0.0", "-0.0", "1", "-1", "+1", "1.5", "2.5", "3", "-3", "-5",
+            "2.99999", "3.0000001", "-4.9999999", "0.1", "0.2", "0.3", "0.7", "1.1", "2.2", "-2.675",
+            "16777216", "16777217", "1677721.6", "0.0000000001", "0.00000000001", "1234567.8",
+            "00001.5000", "1e0", "1E-1", "2.5e0"));
+        for (float x : HitTable.X_VALUES) {
+            for (float r : HitTable.R_VALUES) {
+                float[] boundaries = {r / 2, -r / 2, -x - r / 2, (float) -Math.sqrt(Math.max(0, r * r - x * x))};
+                for (float boundary : boundaries) {
+                    values.add(Float.toString(Math.nextDown(boundary)));
+                    values.add(Float.toString(boundary));
+                    values.add(Float.toString(Math.nextUp(boundary)));
+                }
+            }
+        }
+        Random random = new Random(1);
+        for (int i = 0; i < RANDOM_VALUES; i++) {
+            values.add(String.format(Locale.ROOT, "%." + random.nextInt(9) + "f", random.nextDouble() * 8 - 5));
+        }
+        return values;
+    }
+
+    private static void assertSameFloat(String message, float expected, float actual) {
+        assertEquals(message, Float.floatToIntBits(expected), Float.floatToIntBits(actual));
+    }
+}
@@ -0,0 +1,59 @@
+package org.points;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AreaCheckerBenchmark {
+    private static final int SIZE = 1024;
+    private static final double[] RADII = {1, 2, 3, 4, 5};
+
+    @Param({"uniform", "adversarial"})
+    private String distribution;
+
+    private final Point[] points = new Point[SIZE];
+    private int index;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            if ("uniform".equals(distribution)) {
+                // вся область ввода при максимальном R
+                points[i] = new Point(-4 + random.nextDouble() * 8, -5 + random.nextDouble() * 10, 5);
+            } else {
+                // случайные четверть и R на каждую точку, попадание и промах примерно поровну
+                double r = RADII[random.nextInt(RADII.length)];
+                double x = (random.nextBoolean() ? 1 : -1) * random.nextDouble() * r;
+                double y = (random.nextBoolean() ? 1 : -1) * random.nextDouble() * r;
+                points[i] = new Point(x, y, r);
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean single() {
+        return AreaChecker.checkHit(points[index++ & (SIZE - 1)]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void bulk(Blackhole blackhole) {
+        for (Point point : points) {
+            blackhole.consume(AreaChecker.checkHit(point));
+        }
+    }
+}
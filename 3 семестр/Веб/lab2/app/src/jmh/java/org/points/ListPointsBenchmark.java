@@ -0,0 +1,79 @@
+package org.points;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+// copyOnWrite* - прежнее хранение в ListPoints (вставка в начало CopyOnWriteArrayList)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ListPointsBenchmark {
+    @Param({"10000", "100000"})
+    private int size;
+
+    private ListPoints listPoints;
+    private List<Point> copyOnWrite;
+    private Point point;
+
+    // история растёт во время измерения, поэтому заполняется заново на каждую итерацию
+    @Setup(Level.Iteration)
+    public void setup() {
+        Random random = new Random(42);
+        listPoints = new ListPoints();
+        copyOnWrite = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Point next = new Point(-4 + random.nextDouble() * 8, -5 + random.nextDouble() * 10, 1 + random.nextInt(5));
+            Point checked = next.withResult(AreaChecker.checkHit(next));
+            listPoints.addPoint(checked);
+            copyOnWrite.add(0, checked);
+        }
+        point = new Point(1, 1, 3, true);
+    }
+
+    @Benchmark
+    public void addPoint() {
+        listPoints.addPoint(point);
+    }
+
+    @Benchmark
+    public void copyOnWriteAdd() {
+        copyOnWrite.add(0, point);
+    }
+
+    @Benchmark
+    public List<Point> recentPoints() {
+        return listPoints.getRecentPoints(5);
+    }
+
+    @Benchmark
+    public Point lastPoint() {
+        return listPoints.getLastPoint();
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        for (Point p : listPoints.getListPoints()) {
+            blackhole.consume(p);
+        }
+    }
+
+    @Benchmark
+    public void copyOnWriteIterate(Blackhole blackhole) {
+        for (Point p : copyOnWrite) {
+            blackhole.consume(p);
+        }
+    }
+}
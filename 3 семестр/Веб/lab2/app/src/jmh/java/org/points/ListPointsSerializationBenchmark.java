@@ -0,0 +1,85 @@
+package org.points;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// copyOnWrite* - прежний вид сессии: CopyOnWriteArrayList из Point со стандартной сериализацией
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ListPointsSerializationBenchmark {
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    private ListPoints listPoints;
+    private List<Point> copyOnWrite;
+    private byte[] listPointsBytes;
+    private byte[] copyOnWriteBytes;
+
+    @Setup
+    public void setup() throws IOException {
+        Random random = new Random(42);
+        listPoints = new ListPoints();
+        copyOnWrite = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Point next = new Point(-4 + random.nextDouble() * 8, -5 + random.nextDouble() * 10, 1 + random.nextInt(5));
+            Point checked = next.withResult(AreaChecker.checkHit(next)).withExecutionTime(random.nextInt(100));
+            listPoints.addPoint(checked);
+            copyOnWrite.add(0, checked);
+        }
+        listPointsBytes = serialize(listPoints);
+        copyOnWriteBytes = serialize(copyOnWrite);
+        System.out.printf("%nbytes per point: columnar %.1f, copyOnWrite %.1f%n",
+            (double) listPointsBytes.length / size, (double) copyOnWriteBytes.length / size);
+    }
+
+    @Benchmark
+    public byte[] serializeColumnar() throws IOException {
+        return serialize(listPoints);
+    }
+
+    @Benchmark
+    public byte[] serializeCopyOnWrite() throws IOException {
+        return serialize(copyOnWrite);
+    }
+
+    @Benchmark
+    public Object deserializeColumnar() throws IOException, ClassNotFoundException {
+        return deserialize(listPointsBytes);
+    }
+
+    @Benchmark
+    public Object deserializeCopyOnWrite() throws IOException, ClassNotFoundException {
+        return deserialize(copyOnWriteBytes);
+    }
+
+    private static byte[] serialize(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.servlets;
+
+import java.io.File;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.startup.Tomcat;
+
+/**
+ * Сравнение синхронного и асинхронного AreaCheckServlet на встроенном Tomcat:
+ * sessions клиентов, у каждого своя сессия (cookie), по requests POST подряд.
+ * После прогрева обоих режимов каждый замеряется дважды, вперемешку.
+ * Печатает пропускную способность и p50/p99/p999/max задержки.
+ * <p>
+ * gradle asyncHarness --args="64 500"
+ */
+public class AsyncComparisonHarness {
+    private static final String BODY = "x=1&y=1&r=1&r=2&r=3&r=4&r=5";
+
+    public static void main(String[] args) throws Exception {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+        File baseDir = Files.createTempDirectory("lab2-tomcat").toFile();
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(baseDir.getAbsolutePath());
+        tomcat.setPort(0);
+        tomcat.getConnector();
+
+        Context context = tomcat.addContext("", baseDir.getAbsolutePath());
+        Wrapper sync = Tomcat.addServlet(context, "sync", new AreaCheckServlet());
+        sync.addInitParameter("async", "false");
+        context.addServletMappingDecoded("/sync", "sync");
+        Wrapper async = Tomcat.addServlet(context, "async", new AreaCheckServlet());
+        async.setAsyncSupported(true);
+        context.addServletMappingDecoded("/async", "async");
+
+        tomcat.start();
+        String base = "http://localhost:" + tomcat.getConnector().getLocalPort();
+        try {
+            // оба режима прогреваются до замеров, чтобы JIT не подыгрывал второму
+            for (String mode : List.of("sync", "async")) {
+                run(base + "/" + mode, sessions, requests);
+            }
+            for (String mode : List.of("sync", "async", "sync", "async")) {
+                long[] latencies = new long[sessions * requests];
+                long start = System.nanoTime();
+                run(base + "/" + mode, sessions, requests, latencies);
+                long elapsed = System.nanoTime() - start;
+                report(mode, latencies, elapsed);
+            }
+        } finally {
+            tomcat.stop();
+            tomcat.destroy();
+        }
+    }
+
+    private static void run(String url, int sessions, int requests) throws Exception {
+        run(url, sessions, requests, new long[sessions * requests]);
+    }
+
+    private static void run(String url, int sessions, int requests, long[] latencies) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(sessions);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int s = 0; s < sessions; s++) {
+                int offset = s * requests;
+                futures.add(clients.submit(() -> {
+                    HttpClient client = HttpClient.newBuilder()
+                            .cookieHandler(new CookieManager())
+                            .followRedirects(HttpClient.Redirect.NEVER)
+                            .build();
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                            .header("Content-Type", "application/x-www-form-urlencoded")
+                            .POST(HttpRequest.BodyPublishers.ofString(BODY))
+                            .build();
+                    for (int i = 0; i < requests; i++) {
+                        long begin = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies[offset + i] = System.nanoTime() - begin;
+                        if (response.statusCode() != 302) {
+                            throw new IllegalStateException("Unexpected status " + response.statusCode());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+    private static void report(String mode, long[] latencies, long elapsed) {
+        Arrays.sort(latencies);
+        System.out.printf("%-5s %8.0f req/s  p50 %6.2f ms  p99 %6.2f ms  p999 %6.2f ms  max %6.2f ms%n",
+                mode,
+                latencies.length / (elapsed / 1e9),
+                percentile(latencies, 50),
+                percentile(latencies, 99),
+                percentile(latencies, 99.9),
+                latencies[latencies.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(sorted.length * percentile / 100) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,68 @@
+package org.tags;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// legacy - прежний рендерер на replaceAll/matches; аллокации смотреть в профайлере gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MarkdownRendererBenchmark {
+    private static final String FEATURES = "headers,bold,italic,links,lists,images";
+
+    private static final String SECTION = """
+            # Заголовок раздела
+
+            Это **жирный текст**, *курсив* и __ещё жирный__ со ссылкой [на пример](https://example.com).
+            Строка с `inline кодом` и _подчёркнутым курсивом_ & спецсимволами <b>.
+
+            ## Список возможностей:
+            - Поддержка списков
+            - Поддержка `inline кода`
+            - Поддержка [ссылок](https://example.com/docs?page=1)
+
+            ### Вложенный список:
+            1. Первый пункт
+            2. Второй пункт
+              - Подпункт A
+              - Подпункт B
+
+            """;
+
+    @Param({"1024", "102400", "1048576"})
+    private int size;
+
+    private String markdown;
+    private final Writer out = Writer.nullWriter();
+    private final MarkdownRenderer renderer = new MarkdownRenderer("vertical", FEATURES, "light", false, "article");
+    private final LegacyMarkdownRenderer legacy = new LegacyMarkdownRenderer("vertical", FEATURES, "light", false, "article");
+
+    @Setup
+    public void setup() {
+        StringBuilder document = new StringBuilder(size + SECTION.length());
+        while (document.length() < size) {
+            document.append(SECTION);
+        }
+        markdown = document.substring(0, size);
+    }
+
+    @Benchmark
+    public void renderer() throws IOException {
+        renderer.render(markdown, out);
+    }
+
+    @Benchmark
+    public void legacy() throws IOException {
+        out.write(legacy.convertMarkdownToHtml(markdown));
+    }
+}
@@ -1,68 +1,78 @@
 package org.points;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.stream.Collectors;
 
 public class ListPoints implements Serializable {
-    private List<Point> listPoints = new CopyOnWriteArrayList<>();
+    private volatile PointHistory history = new PointHistory();
 
     public ListPoints() {
     }
 
+    // от новых к старым; снимок, следующие точки в него не попадут
     public List<Point> getListPoints() {
-        return listPoints; 
+        return history.newestFirst();
     }
 
-    public void addPoint(Point point) {
-        listPoints.add(0, point); 
+    public synchronized void addPoint(Point point) {
+        history.add(point);
     }
 
-    public void addAllPoints(List<Point> points) {
-        listPoints.addAll(0, points); 
+    // points.get(0) становится самой новой, как при вставке всего списка в начало
+    public synchronized void addAllPoints(List<Point> points) {
+        for (int i = points.size() - 1; i >= 0; i--) {
+            addPoint(points.get(i));
+        }
     }
 
     public boolean isEmpty() {
-        return listPoints.isEmpty();
+        return history.size() == 0;
     }
-    
+
     public int size() {
-        return listPoints.size();
+        return history.size();
     }
 
-    public void clear() {
-        listPoints.clear();
+    public synchronized void clear() {
+        history = new PointHistory();
     }
 
     public List<Point> getRecentPoints(int count) {
-        return listPoints.stream()
-                .limit(count)
-                .collect(Collectors.toList());
+        List<Point> points = history.newestFirst();
+        return new ArrayList<>(points.subList(0, Math.min(Math.max(count, 0), points.size())));
+    }
+
+    // страница page (с нуля) по pageSize точек, от новых к старым
+    public List<Point> getPage(int page, int pageSize) {
+        List<Point> points = history.newestFirst();
+        int from = (int) Math.min((long) Math.max(page, 0) * pageSize, points.size());
+        int to = Math.min(from + Math.max(pageSize, 0), points.size());
+        return new ArrayList<>(points.subList(from, to));
+    }
+
+    public int getPageCount(int pageSize) {
+        return Math.max(1, (size() + pageSize - 1) / pageSize);
     }
 
     public long getHitCount() {
-        return listPoints.stream()
-                .filter(Point::result)
-                .count();
+        return history.hits();
     }
 
     public long getMissCount() {
-        return listPoints.size() - getHitCount();
+        return history.misses();
     }
 
     public Point getLastPoint() {
-        return listPoints.isEmpty() ? null : listPoints.get(0);
+        return history.newest();
     }
 
     public List<Point> getPointsByRadius(double radius) {
-        return listPoints.stream()
-                .filter(point -> point.r() == radius)
-                .collect(Collectors.toList());
+        return new ArrayList<>(history.newestFirst(radius));
     }
 
     @Override
     public String toString() {
-        return "ListPoints{size=" + listPoints.size() + "}";
+        return "ListPoints{size=" + history.size() + "}";
     }
-}
\ No newline at end of file
+}
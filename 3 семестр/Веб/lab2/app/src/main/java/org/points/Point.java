@@ -14,6 +14,7 @@ public record Point(
     LocalDateTime timestamp,
     long executionTime
 ) implements Serializable {
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     public Point {
         
@@ -36,8 +37,7 @@ public record Point(
     }
 
     public String getFormattedTimestamp() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        return timestamp.format(formatter);
+        return timestamp.format(TIMESTAMP_FORMAT);
     }
 
     public String getResultText() {
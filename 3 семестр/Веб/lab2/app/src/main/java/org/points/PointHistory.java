@@ -0,0 +1,275 @@
+package org.points;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * История точек сессии, хранящаяся по столбцам: x, y, r, время и длительность
+ * проверки - в параллельных массивах, результаты - в битовом наборе. Объекты
+ * {@link Point} создаются только при чтении.
+ * <p>
+ * Столбцы только дописываются, поэтому (столбцы, размер) - неизменяемый снимок;
+ * очистка - это новый объект истории, а не обнуление этого.
+ * Читатели берут текущий снимок одним volatile-чтением, без блокировок; добавление
+ * под монитором нужно лишь для двух одновременных запросов одной сессии.
+ * Число попаданий хранится в снимке, поэтому согласовано с его размером.
+ * <p>
+ * Индекс по радиусу хранит номера точек в истории. Он обновляется после
+ * основного снимка, поэтому номера из индекса всегда есть в снимке, взятом позже.
+ */
+public class PointHistory implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private transient volatile Columns current = Columns.empty(INITIAL_CAPACITY);
+    private transient Map<Double, Indexes> byRadius = new ConcurrentHashMap<>();
+
+    public synchronized void add(Point point) {
+        Columns columns = current.append(point);
+        current = columns;
+        Double key = key(point.r());
+        Indexes indexes = byRadius.getOrDefault(key, Indexes.EMPTY);
+        byRadius.put(key, indexes.append(columns.size - 1));
+    }
+
+    public int size() {
+        return current.size;
+    }
+
+    public long hits() {
+        return current.hits;
+    }
+
+    public long misses() {
+        Columns columns = current;
+        return columns.size - columns.hits;
+    }
+
+    public Point newest() {
+        Columns columns = current;
+        return columns.size == 0 ? null : columns.point(columns.size - 1);
+    }
+
+    /** Снимок истории на текущий момент, от новых к старым. */
+    public List<Point> newestFirst() {
+        return current;
+    }
+
+    /** Точки с радиусом radius, от новых к старым. */
+    public List<Point> newestFirst(double radius) {
+        Indexes indexes = byRadius.getOrDefault(key(radius), Indexes.EMPTY);
+        return indexes.over(current);
+    }
+
+    // +0.0 сводит -0.0 к 0.0, чтобы ключ совпадал там же, где и сравнение ==
+    private static Double key(double radius) {
+        return radius + 0.0;
+    }
+
+    // наносекунды от 1970-01-01T00:00 без учёта пояса, точно до 2262 года
+    static long toNanos(LocalDateTime time) {
+        if (time == null) {
+            return NO_TIMESTAMP;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * NANOS_PER_SECOND + time.getNano();
+    }
+
+    static LocalDateTime fromNanos(long nanos) {
+        if (nanos == NO_TIMESTAMP) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(
+            Math.floorDiv(nanos, NANOS_PER_SECOND), (int) Math.floorMod(nanos, NANOS_PER_SECOND), ZoneOffset.UTC);
+    }
+
+    // размер, затем столбцы целиком; индекс по радиусу не пишется, а строится заново
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        Columns columns = current;
+        int size = columns.size;
+        out.defaultWriteObject();
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeDouble(columns.x[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            out.writeDouble(columns.y[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            out.writeDouble(columns.r[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            out.writeLong(columns.timestamp[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            out.writeLong(columns.executionTime[i]);
+        }
+        // хвост последнего слова маскируется: параллельный add мог уже выставить бит за size
+        int words = (size + 63) >>> 6;
+        for (int i = 0; i < words; i++) {
+            out.writeLong(i == words - 1 ? columns.results[i] & tailMask(size) : columns.results[i]);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("Negative history size: " + size);
+        }
+        Columns columns = Columns.empty(Math.max(size, INITIAL_CAPACITY));
+        for (int i = 0; i < size; i++) {
+            columns.x[i] = in.readDouble();
+        }
+        for (int i = 0; i < size; i++) {
+            columns.y[i] = in.readDouble();
+        }
+        for (int i = 0; i < size; i++) {
+            columns.r[i] = in.readDouble();
+        }
+        for (int i = 0; i < size; i++) {
+            columns.timestamp[i] = in.readLong();
+        }
+        for (int i = 0; i < size; i++) {
+            columns.executionTime[i] = in.readLong();
+        }
+        long hits = 0;
+        int words = (size + 63) >>> 6;
+        for (int i = 0; i < words; i++) {
+            long word = in.readLong();
+            columns.results[i] = i == words - 1 ? word & tailMask(size) : word;
+            hits += Long.bitCount(columns.results[i]);
+        }
+
+        Map<Double, Indexes> index = new ConcurrentHashMap<>();
+        for (int i = 0; i < size; i++) {
+            Double key = key(columns.r[i]);
+            index.put(key, index.getOrDefault(key, Indexes.EMPTY).append(i));
+        }
+        current = new Columns(columns.x, columns.y, columns.r, columns.timestamp, columns.executionTime,
+            columns.results, size, hits);
+        byRadius = index;
+    }
+
+    // младшие size % 64 бит последнего слова; при size, кратном 64, - всё слово
+    private static long tailMask(int size) {
+        return -1L >>> -size;
+    }
+
+    private static class Columns extends AbstractList<Point> implements RandomAccess {
+        final double[] x;
+        final double[] y;
+        final double[] r;
+        final long[] timestamp;
+        final long[] executionTime;
+        final long[] results;
+        final int size;
+        final long hits;
+
+        Columns(double[] x, double[] y, double[] r, long[] timestamp, long[] executionTime, long[] results,
+                int size, long hits) {
+            this.x = x;
+            this.y = y;
+            this.r = r;
+            this.timestamp = timestamp;
+            this.executionTime = executionTime;
+            this.results = results;
+            this.size = size;
+            this.hits = hits;
+        }
+
+        static Columns empty(int capacity) {
+            return new Columns(new double[capacity], new double[capacity], new double[capacity],
+                new long[capacity], new long[capacity], new long[(capacity + 63) >>> 6], 0, 0);
+        }
+
+        Columns append(Point point) {
+            Columns target = this;
+            if (size == x.length) {
+                int capacity = size * 2;
+                target = new Columns(Arrays.copyOf(x, capacity), Arrays.copyOf(y, capacity),
+                    Arrays.copyOf(r, capacity), Arrays.copyOf(timestamp, capacity),
+                    Arrays.copyOf(executionTime, capacity), Arrays.copyOf(results, (capacity + 63) >>> 6),
+                    size, hits);
+            }
+            target.x[size] = point.x();
+            target.y[size] = point.y();
+            target.r[size] = point.r();
+            target.timestamp[size] = toNanos(point.timestamp());
+            target.executionTime[size] = point.executionTime();
+            // бит ставится и снимается явно, не полагаясь на то, что слово под ним нулевое
+            if (point.result()) {
+                target.results[size >>> 6] |= 1L << size;
+            } else {
+                target.results[size >>> 6] &= ~(1L << size);
+            }
+            return new Columns(target.x, target.y, target.r, target.timestamp, target.executionTime,
+                target.results, size + 1, hits + (point.result() ? 1 : 0));
+        }
+
+        Point point(int index) {
+            return new Point(x[index], y[index], r[index], (results[index >>> 6] & 1L << index) != 0,
+                fromNanos(timestamp[index]), executionTime[index]);
+        }
+
+        @Override
+        public Point get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return point(size - 1 - index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    // номера точек одного радиуса в порядке добавления; массив, как и столбцы, только дописывается
+    private static class Indexes {
+        static final Indexes EMPTY = new Indexes(new int[0], 0);
+
+        final int[] indexes;
+        final int size;
+
+        Indexes(int[] indexes, int size) {
+            this.indexes = indexes;
+            this.size = size;
+        }
+
+        Indexes append(int index) {
+            int[] target = size == indexes.length ? Arrays.copyOf(indexes, Math.max(size * 2, 4)) : indexes;
+            target[size] = index;
+            return new Indexes(target, size + 1);
+        }
+
+        List<Point> over(Columns columns) {
+            return new AbstractList<>() {
+                @Override
+                public Point get(int i) {
+                    if (i < 0 || i >= size) {
+                        throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+                    }
+                    return columns.point(indexes[size - 1 - i]);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+    }
+}
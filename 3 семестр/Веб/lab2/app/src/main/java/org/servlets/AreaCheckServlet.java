@@ -4,6 +4,9 @@ import org.points.Point;
 import org.points.ListPoints;
 import org.exception.ValidationException;
 import org.points.AreaChecker;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -14,32 +17,156 @@ import jakarta.servlet.http.HttpSession;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-@WebServlet(name = "AreaCheckServlet", value = "/area-check")
+/**
+ * Проверка точки. Параметры читаются на потоке контейнера, а сама проверка и
+ * запись в историю - в ограниченном пуле после request.startAsync(), так что поток
+ * контейнера сразу возвращается к приёму запросов. Если очередь пула полна,
+ * запрос обрабатывается на потоке контейнера, как раньше.
+ * <p>
+ * Ответ отправляет кто-то один: либо пул по окончании проверки, либо
+ * {@link Completion} по таймауту или ошибке контейнера.
+ * <p>
+ * Init-параметр async=false отключает асинхронную обработку.
+ */
+@WebServlet(name = "AreaCheckServlet", value = "/area-check", asyncSupported = true)
 public class AreaCheckServlet extends HttpServlet {
-    
+    private static final int QUEUE_CAPACITY = 256;
+    private static final long ASYNC_TIMEOUT_MS = 10_000;
+    private static final String TIMEOUT_ERROR = "Проверка заняла слишком много времени, повторите запрос";
+
+    private ThreadPoolExecutor executor;
+    private boolean async;
+
     @Override
-    protected void doPost(HttpServletRequest request, HttpServletResponse response) 
+    public void init() throws ServletException {
+        async = !"false".equals(getInitParameter("async"));
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                task -> {
+                    Thread thread = new Thread(task, "area-check-worker");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
-        
+
         long startTime = System.nanoTime();
-        
-        try {
-            String xStr = request.getParameter("x");
-            String yStr = request.getParameter("y");
-            String[] rValues = request.getParameterValues("r");
-            
-            if (rValues == null || rValues.length == 0) {
-                request.setAttribute("error", "Не выбран радиус R");
+
+        String xStr = request.getParameter("x");
+        String yStr = request.getParameter("y");
+        String[] rValues = request.getParameterValues("r");
+        HttpSession session = request.getSession();
+
+        if (!async || !request.isAsyncSupported()) {
+            String error = check(session, xStr, yStr, rValues, startTime);
+            if (error != null) {
+                request.setAttribute("error", error);
                 request.getRequestDispatcher("/index.jsp").forward(request, response);
+            } else {
+                response.sendRedirect(request.getContextPath() + "/result.jsp");
+            }
+            return;
+        }
+
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(ASYNC_TIMEOUT_MS);
+        Completion completion = new Completion();
+        asyncContext.addListener(completion);
+        Runnable task = () -> {
+            String error = check(session, xStr, yStr, rValues, startTime);
+            if (completion.claim()) {
+                complete(asyncContext, error);
+            }
+        };
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    private void complete(AsyncContext asyncContext, String error) {
+        try {
+            HttpServletRequest request = (HttpServletRequest) asyncContext.getRequest();
+            HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+            if (error != null) {
+                request.setAttribute("error", error);
+                asyncContext.dispatch("/index.jsp");
                 return;
             }
+            try {
+                response.sendRedirect(request.getContextPath() + "/result.jsp");
+            } catch (IOException e) {
+                log("Redirect after area check failed", e);
+            } finally {
+                asyncContext.complete();
+            }
+        } catch (IllegalStateException e) {
+            // контейнер успел завершить запрос сам, между claim() и ответом
+            log("Async area check finished after the request was completed", e);
+        }
+    }
+
+    // первый claim() получает право ответить; таймаут и ошибка отвечают, только если пул не успел
+    private class Completion implements AsyncListener {
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        boolean claim() {
+            return finished.compareAndSet(false, true);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            if (claim()) {
+                complete(event.getAsyncContext(), TIMEOUT_ERROR);
+            }
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            if (claim()) {
+                log("Async area check failed", event.getThrowable());
+                event.getAsyncContext().complete();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            finished.set(true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    // null - точки проверены и добавлены в историю, иначе текст ошибки для index.jsp
+    private String check(HttpSession session, String xStr, String yStr, String[] rValues, long startTime) {
+        try {
+            if (rValues == null || rValues.length == 0) {
+                return "Не выбран радиус R";
+            }
 
             double x = Double.parseDouble(xStr);
             double y = Double.parseDouble(yStr);
 
-            HttpSession session = request.getSession();
-
             session.setAttribute("currentX", xStr);
             session.setAttribute("currentY", yStr);
 
@@ -51,44 +178,38 @@ public class AreaCheckServlet extends HttpServlet {
 
             List<Point> currentPoints = new ArrayList<>();
             List<String> validationErrors = new ArrayList<>();
-            
+
             for (String rValue : rValues) {
                 try {
                     double r = Double.parseDouble(rValue);
                     Point.validatePoint(x, y, r);
-                    
+
                     Point point = new Point(x, y, r);
                     boolean result = AreaChecker.checkHit(point);
-                    
+
                     Point resultPoint = point.withResult(result)
                                         .withExecutionTime((System.nanoTime() - startTime) / 1000);
-                    
+
                     listPoints.addPoint(resultPoint);
                     currentPoints.add(resultPoint);
-                    
+
                 } catch (ValidationException e) {
                     if (e.getMessage().contains("R")) {
                         validationErrors.add("радиус " + rValue + " пропущен - " + e.getMessage());
                     } else {
-                        request.setAttribute("error", e.getMessage());
-                        request.getRequestDispatcher("/index.jsp").forward(request, response);
-                        return;
+                        return e.getMessage();
                     }
                 }
             }
 
             session.setAttribute("warnings", validationErrors);
             session.setAttribute("currentPoints", currentPoints);
-            session.setAttribute("results", listPoints.getListPoints());
-            
-            response.sendRedirect(request.getContextPath() + "/result.jsp");
-            
+            return null;
+
         } catch (NumberFormatException e) {
-            request.setAttribute("error", "Ошибка преобразования чисел: " + e.getMessage());
-            request.getRequestDispatcher("/index.jsp").forward(request, response);
+            return "Ошибка преобразования чисел: " + e.getMessage();
         } catch (Exception e) {
-            request.setAttribute("error", "Внутренняя ошибка сервера: " + e.getMessage());
-            request.getRequestDispatcher("/index.jsp").forward(request, response);
+            return "Внутренняя ошибка сервера: " + e.getMessage();
         }
     }
-}
\ No newline at end of file
+}
@@ -9,7 +9,8 @@ import jakarta.servlet.http.HttpSession;
 import java.io.IOException;
 import org.points.FormBean;
 
-@WebServlet(name = "ControllerServlet", value = "/controller")
+// asyncSupported: запрос пересылается в AreaCheckServlet, который вызывает startAsync
+@WebServlet(name = "ControllerServlet", value = "/controller", asyncSupported = true)
 public class ControllerServlet extends HttpServlet {
     
     @Override
@@ -64,7 +65,6 @@ public class ControllerServlet extends HttpServlet {
             formBean.clear();
         }
         
-        session.removeAttribute("results");
         session.removeAttribute("currentPoints");
         session.removeAttribute("listPoints");
         session.removeAttribute("currentX");
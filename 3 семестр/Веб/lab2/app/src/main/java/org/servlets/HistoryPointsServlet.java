@@ -0,0 +1,56 @@
+package org.servlets;
+
+import org.points.ListPoints;
+import org.points.Point;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+
+/**
+ * Все точки сессии для графика: JSON-массив [x, y, попадание], от новых к старым.
+ * Таблица на index.jsp листается страницами, а график рисует всю историю,
+ * поэтому данные берёт отсюда. Как и /history, ответ уходит пачками.
+ */
+@WebServlet(name = "HistoryPointsServlet", value = "/history/points")
+public class HistoryPointsServlet extends HttpServlet {
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        HttpSession session = request.getSession(false);
+        ListPoints listPoints = session != null ? (ListPoints) session.getAttribute("listPoints") : null;
+        List<Point> points = listPoints != null ? listPoints.getListPoints() : List.of();
+
+        response.setContentType("application/json;charset=UTF-8");
+        response.setHeader("Cache-Control", "no-store");
+        PrintWriter out = response.getWriter();
+
+        out.print('[');
+        for (int i = 0; i < points.size(); i++) {
+            Point point = points.get(i);
+            if (i > 0) {
+                out.print(',');
+            }
+            out.print('[');
+            out.print(point.x());
+            out.print(',');
+            out.print(point.y());
+            out.print(',');
+            out.print(point.result() ? 1 : 0);
+            out.print(']');
+            if ((i + 1) % BATCH_SIZE == 0) {
+                response.flushBuffer();
+            }
+        }
+        out.print(']');
+    }
+}
@@ -0,0 +1,89 @@
+package org.servlets;
+
+import org.points.ListPoints;
+import org.points.Point;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+
+/**
+ * Вся история сессии одной таблицей. Страница не собирается целиком: шапка и
+ * строки уходят клиенту пачками через flushBuffer, поэтому первый байт приходит
+ * сразу, а буфер ответа не растёт вместе с историей.
+ */
+@WebServlet(name = "HistoryServlet", value = "/history")
+public class HistoryServlet extends HttpServlet {
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        HttpSession session = request.getSession(false);
+        ListPoints listPoints = session != null ? (ListPoints) session.getAttribute("listPoints") : null;
+        List<Point> points = listPoints != null ? listPoints.getListPoints() : List.of();
+
+        response.setContentType("text/html;charset=UTF-8");
+        PrintWriter out = response.getWriter();
+
+        out.println("<!DOCTYPE html>");
+        out.println("<html lang=\"ru\">");
+        out.println("<head>");
+        out.println("    <meta charset=\"UTF-8\">");
+        out.println("    <title>История проверок</title>");
+        out.println("    <link rel=\"stylesheet\" href=\"" + request.getContextPath() + "/css/result.css\">");
+        out.println("</head>");
+        out.println("<body>");
+        out.println("<div class=\"container\">");
+        out.println("<section class=\"recent-results\">");
+        out.println("    <h3>История проверок: " + points.size() + "</h3>");
+        out.println("    <a class=\"btn btn-primary\" href=\"" + request.getContextPath() + "/result.jsp\">Назад</a>");
+        out.println("    <table class=\"results-table\">");
+        out.println("        <thead><tr class=\"column-name\"><th>X</th><th>Y</th><th>R</th>"
+                + "<th>Результат</th><th>Время выполнения</th><th>Время запроса</th></tr></thead>");
+        out.println("        <tbody>");
+        response.flushBuffer();
+
+        if (points.isEmpty()) {
+            out.println("            <tr><td colspan=\"6\" class=\"no-results\">Нет результатов</td></tr>");
+        }
+        for (int i = 0; i < points.size(); i++) {
+            writeRow(out, points.get(i));
+            if ((i + 1) % BATCH_SIZE == 0) {
+                response.flushBuffer();
+            }
+        }
+
+        out.println("        </tbody>");
+        out.println("    </table>");
+        out.println("</section>");
+        out.println("</div>");
+        out.println("</body>");
+        out.println("</html>");
+    }
+
+    private static void writeRow(PrintWriter out, Point point) {
+        out.print("            <tr class=\"");
+        out.print(point.getResultColor());
+        out.print("\"><td>");
+        out.print(point.x());
+        out.print("</td><td>");
+        out.print(point.y());
+        out.print("</td><td>");
+        out.print(point.r());
+        out.print("</td><td>");
+        out.print(point.getResultText());
+        out.print("</td><td>");
+        out.print(point.executionTime());
+        out.print(" мкс</td><td>");
+        out.print(point.getFormattedTimestamp());
+        out.println("</td></tr>");
+    }
+}
@@ -0,0 +1,468 @@
+package org.tags;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Markdown в HTML без регулярных выражений. Документ проходится один раз,
+ * строки определяются по индексам, а HTML пишется прямо в Writer.
+ * <p>
+ * Разметка внутри строки (жирный, курсив, ссылки, код) разбирается ручными
+ * сканерами в том же порядке, в каком её раньше применяли replaceAll, и с той
+ * же семантикой ленивого {@code (.*?)}: содержимое не переходит через символы
+ * конца строки. Поэтому HTML совпадает с прежним до байта.
+ */
+public class MarkdownRenderer {
+    private final String orientation;
+    private final String codeTheme;
+    private final boolean openLinksInNewTab;
+    private final String id;
+
+    private final boolean headers;
+    private final boolean bold;
+    private final boolean italic;
+    private final boolean links;
+
+    private final String codeOpen;
+
+    public MarkdownRenderer(String orientation, String enableFeatures, String codeTheme,
+                            boolean openLinksInNewTab, String id) {
+        this.orientation = orientation;
+        this.codeTheme = codeTheme;
+        this.openLinksInNewTab = openLinksInNewTab;
+        this.id = id;
+
+        boolean headers = false, bold = false, italic = false, links = false;
+        if (enableFeatures != null && !enableFeatures.isEmpty()) {
+            for (String feature : enableFeatures.split(",")) {
+                switch (feature.trim().toLowerCase()) {
+                    case "headers" -> headers = true;
+                    case "bold" -> bold = true;
+                    case "italic" -> italic = true;
+                    case "links" -> links = true;
+                    default -> { }
+                }
+            }
+        }
+        this.headers = headers;
+        this.bold = bold;
+        this.italic = italic;
+        this.links = links;
+
+        this.codeOpen = "<code class=\"code-" + (codeTheme != null ? codeTheme : "light") + "\">";
+    }
+
+    public void render(String markdown, Writer out) throws IOException {
+        if (markdown == null || trimStart(markdown, 0, markdown.length()) == markdown.length()) {
+            return;
+        }
+
+        out.write("<div class=\"markdown-content\"");
+        if (id != null && !id.isEmpty()) {
+            out.write(" id=\"");
+            out.write(id);
+            out.write("\"");
+        }
+        out.write(" data-orientation=\"");
+        out.write(String.valueOf(orientation));
+        out.write("\"");
+        if (codeTheme != null && !codeTheme.isEmpty()) {
+            out.write(" codeTheme=\"");
+            out.write(codeTheme);
+            out.write("\"");
+        }
+        out.write(">\n");
+
+        Inline inline = new Inline();
+        int length = markdown.length();
+
+        boolean inList = false;
+        boolean inOrderedList = false;
+        int listIndentLevel = 0;
+        boolean previousIsListItem = false;
+
+        int start = 0;
+        int end = lineEnd(markdown, 0);
+        while (start <= length) {
+            int trimStart = trimStart(markdown, start, end);
+            int trimEnd = trimEnd(markdown, trimStart, end);
+            boolean isListItem = isListItem(markdown, trimStart, trimEnd);
+
+            int nextStart = end + 1;
+            int nextEnd = nextStart <= length ? lineEnd(markdown, nextStart) : -1;
+
+            if (isListItem) {
+                int currentIndent = indentLevel(markdown, start, end);
+
+                if (!inList || currentIndent != listIndentLevel) {
+                    if (inList) {
+                        out.write("</li>\n");
+                        out.write(listClosingTag(inOrderedList));
+                    }
+
+                    inOrderedList = isOrderedListItem(markdown, trimStart, trimEnd);
+                    listIndentLevel = currentIndent;
+                    writeListOpeningTag(out, inOrderedList, currentIndent);
+                    inList = true;
+                } else if (previousIsListItem) {
+                    out.write("</li>\n");
+                }
+
+                out.write("<li>");
+                inline.listItem(markdown, trimStart, trimEnd);
+                inline.writeTo(out);
+
+                // как и раньше, следующая строка проверяется без trim()
+                if (nextEnd < 0 || !isListItem(markdown, nextStart, nextEnd)) {
+                    out.write("</li>\n");
+                    out.write(listClosingTag(inOrderedList));
+                    inList = false;
+                    listIndentLevel = 0;
+                }
+            } else {
+                if (inList) {
+                    out.write("</li>\n");
+                    out.write(listClosingTag(inOrderedList));
+                    inList = false;
+                    listIndentLevel = 0;
+                }
+
+                if (trimStart < trimEnd) {
+                    inline.line(markdown, trimStart, trimEnd);
+                    inline.writeTo(out);
+                    out.write("\n");
+                }
+            }
+
+            previousIsListItem = isListItem;
+            start = nextStart;
+            end = nextEnd;
+        }
+
+        out.write("</div>");
+    }
+
+    private static int lineEnd(String text, int from) {
+        int end = text.indexOf('\n', from);
+        return end < 0 ? text.length() : end;
+    }
+
+    // те же границы, что у String.trim()
+    private static int trimStart(String text, int from, int to) {
+        while (from < to && text.charAt(from) <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimEnd(String text, int from, int to) {
+        while (to > from && text.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        return to;
+    }
+
+    // ^\s*([\*\-\+]|\d+\.)\s+.*
+    static boolean isListItem(String text, int from, int to) {
+        int i = skipSpaces(text, from, to);
+        if (i < to && isBullet(text.charAt(i))) {
+            i++;
+        } else {
+            i = skipNumberMarker(text, i, to);
+            if (i < 0) {
+                return false;
+            }
+        }
+        return restMatches(text, i, to);
+    }
+
+    // ^\s*\d+\.\s+.*
+    static boolean isOrderedListItem(String text, int from, int to) {
+        int i = skipNumberMarker(text, skipSpaces(text, from, to), to);
+        return i >= 0 && restMatches(text, i, to);
+    }
+
+    // \s+.* : хотя бы один пробельный символ, а после пробелов - ни одного конца строки
+    private static boolean restMatches(String text, int from, int to) {
+        if (from >= to || !isSpace(text.charAt(from))) {
+            return false;
+        }
+        for (int i = skipSpaces(text, from, to); i < to; i++) {
+            if (isLineTerminator(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // индекс после "\d+\.", либо -1
+    private static int skipNumberMarker(String text, int from, int to) {
+        int i = from;
+        while (i < to && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+            i++;
+        }
+        if (i == from || i >= to || text.charAt(i) != '.') {
+            return -1;
+        }
+        return i + 1;
+    }
+
+    private static int skipSpaces(String text, int from, int to) {
+        while (from < to && isSpace(text.charAt(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    private static boolean isBullet(char c) {
+        return c == '*' || c == '-' || c == '+';
+    }
+
+    // \s в java.util.regex
+    static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    // символы, которые не совпадают с "." в java.util.regex
+    static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private static int indentLevel(String text, int from, int to) {
+        int indent = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c != ' ' && c != '\t') {
+                break;
+            }
+            indent++;
+        }
+        return indent / 2;
+    }
+
+    private static void writeListOpeningTag(Writer out, boolean ordered, int indentLevel) throws IOException {
+        out.write(ordered ? "<ol" : "<ul");
+        if (indentLevel > 0) {
+            out.write(" style=\"margin-left: ");
+            out.write(Integer.toString(indentLevel * 20));
+            out.write("px\"");
+        }
+        out.write(">\n");
+    }
+
+    private static String listClosingTag(boolean ordered) {
+        return ordered ? "</ol>\n" : "</ul>\n";
+    }
+
+    static void escapeHtml(CharSequence text, int from, int to, StringBuilder out) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    /**
+     * Разметка одной строки. Каждый шаг читает current и пишет в spare, после чего
+     * буферы меняются местами; оба переиспользуются для всех строк документа.
+     */
+    private class Inline {
+        private StringBuilder current = new StringBuilder(256);
+        private StringBuilder spare = new StringBuilder(256);
+
+        void line(String text, int from, int to) {
+            current.setLength(0);
+            if (headers) {
+                header(text, from, to);
+            } else {
+                current.append(text, from, to);
+            }
+            if (bold) {
+                pairs("**", "<strong>", "</strong>");
+                pairs("__", "<strong>", "</strong>");
+            }
+            if (italic) {
+                pairs("*", "<em>", "</em>");
+                pairs("_", "<em>", "</em>");
+            }
+            if (links) {
+                links();
+            }
+            pairs("`", codeOpen, "</code>");
+
+            if (current.length() == 0) {
+                current.append("<br>");
+            } else {
+                current.insert(0, "<p>").append("</p>");
+            }
+        }
+
+        // маркер списка снимается, а <p> и </p> вырезаются из строки, как раньше через replace
+        void listItem(String text, int from, int to) {
+            int i = skipSpaces(text, from, to);
+            if (i < to && isBullet(text.charAt(i)) && i + 1 < to && isSpace(text.charAt(i + 1))) {
+                from = skipSpaces(text, i + 1, to);
+            }
+            i = skipNumberMarker(text, skipSpaces(text, from, to), to);
+            if (i >= 0 && i < to && isSpace(text.charAt(i))) {
+                from = skipSpaces(text, i, to);
+            }
+            from = trimStart(text, from, to);
+            to = trimEnd(text, from, to);
+
+            line(text, from, to);
+            removeAll("<p>");
+            removeAll("</p>");
+        }
+
+        void writeTo(Writer out) throws IOException {
+            out.append(current);
+        }
+
+        private void header(String text, int from, int to) {
+            int level = 0;
+            if (to - from >= 4 && text.startsWith("### ", from)) {
+                level = 3;
+            } else if (to - from >= 3 && text.startsWith("## ", from)) {
+                level = 2;
+            } else if (to - from >= 2 && text.startsWith("# ", from)) {
+                level = 1;
+            }
+            if (level == 0) {
+                escapeHtml(text, from, to, current);
+                return;
+            }
+            current.append("<h").append(level).append('>');
+            escapeHtml(text, from + level + 1, to, current);
+            current.append("</h").append(level).append('>');
+        }
+
+        // delimiter(.*?)delimiter -> open$1close
+        private void pairs(String delimiter, String open, String close) {
+            StringBuilder source = current;
+            StringBuilder target = spare;
+            target.setLength(0);
+
+            int length = source.length();
+            int width = delimiter.length();
+            int copied = 0;
+            int p = 0;
+            while (p + 2 * width <= length) {
+                if (!startsWith(source, p, delimiter)) {
+                    p++;
+                    continue;
+                }
+                int q = p + width;
+                while (q + width <= length && !startsWith(source, q, delimiter)
+                        && !isLineTerminator(source.charAt(q))) {
+                    q++;
+                }
+                if (q + width > length) {
+                    break;
+                }
+                if (!startsWith(source, q, delimiter)) {
+                    // конец строки до закрывающего разделителя: раньше него совпадений нет
+                    p = q + 1;
+                    continue;
+                }
+                target.append(source, copied, p).append(open).append(source, p + width, q).append(close);
+                p = q + width;
+                copied = p;
+            }
+            target.append(source, copied, length);
+            swap();
+        }
+
+        // \[(.*?)\]\((.*?)\) -> <a href="$2">$1</a>, обе группы экранируются
+        private void links() {
+            StringBuilder source = current;
+            StringBuilder target = spare;
+            target.setLength(0);
+
+            int length = source.length();
+            int copied = 0;
+            int p = 0;
+            while (p < length) {
+                if (source.charAt(p) != '[') {
+                    p++;
+                    continue;
+                }
+                int middle = p + 1;
+                while (middle + 1 < length && !(source.charAt(middle) == ']' && source.charAt(middle + 1) == '(')
+                        && !isLineTerminator(source.charAt(middle))) {
+                    middle++;
+                }
+                if (middle + 1 >= length) {
+                    break;
+                }
+                if (source.charAt(middle) != ']' || source.charAt(middle + 1) != '(') {
+                    p = middle + 1;
+                    continue;
+                }
+                int close = middle + 2;
+                while (close < length && source.charAt(close) != ')' && !isLineTerminator(source.charAt(close))) {
+                    close++;
+                }
+                if (close >= length) {
+                    break;
+                }
+                if (source.charAt(close) != ')') {
+                    p = close + 1;
+                    continue;
+                }
+
+                target.append(source, copied, p).append("<a href=\"");
+                escapeHtml(source, middle + 2, close, target);
+                target.append('"');
+                if (openLinksInNewTab) {
+                    target.append(" target=\"_blank\" rel=\"noopener noreferrer\"");
+                }
+                target.append('>');
+                escapeHtml(source, p + 1, middle, target);
+                target.append("</a>");
+                p = close + 1;
+                copied = p;
+            }
+            target.append(source, copied, length);
+            swap();
+        }
+
+        // как String.replace(text, ""): слева направо, без перекрытий
+        private void removeAll(String text) {
+            StringBuilder source = current;
+            StringBuilder target = spare;
+            target.setLength(0);
+
+            int copied = 0;
+            int found = source.indexOf(text);
+            while (found >= 0) {
+                target.append(source, copied, found);
+                copied = found + text.length();
+                found = source.indexOf(text, copied);
+            }
+            target.append(source, copied, source.length());
+            swap();
+        }
+
+        private void swap() {
+            StringBuilder previous = current;
+            current = spare;
+            spare = previous;
+        }
+    }
+
+    private static boolean startsWith(CharSequence text, int from, String prefix) {
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(from + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
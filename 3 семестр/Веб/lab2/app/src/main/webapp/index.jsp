@@ -1,6 +1,7 @@
 <%@ page contentType="text/html;charset=UTF-8" language="java" %>
 <%@ page import="java.util.List" %>
 <%@ page import="org.points.Point" %>
+<%@ page import="org.points.ListPoints" %>
 <jsp:useBean id="formBean" class="org.points.FormBean" scope="session"/>
 <jsp:setProperty name="formBean" property="*"/>
 
@@ -8,6 +9,16 @@
     String currentX = formBean.getX();
     String currentY = formBean.getY();
     String[] currentR = formBean.getR();
+
+    // таблица - одна страница истории сессии; график берёт все точки с /history/points
+    final int pageSize = 50;
+    ListPoints listPoints = (ListPoints) session.getAttribute("listPoints");
+    int pageCount = listPoints != null ? listPoints.getPageCount(pageSize) : 1;
+    int currentPage = 0;
+    try {
+        currentPage = Math.min(Math.max(Integer.parseInt(request.getParameter("page")), 0), pageCount - 1);
+    } catch (NumberFormatException ignored) {
+    }
 %>
 <!DOCTYPE html>
 <html lang="ru">
@@ -108,7 +119,7 @@
                 </div>
                 
                 <div class="graph-container">
-                    <canvas id="graphCanvas"></canvas>
+                    <canvas id="graphCanvas" data-points-url="${pageContext.request.contextPath}/history/points"></canvas>
                     <div id="graphError" class="error-message"></div>
                     <div id="clickInfo" class="click-info"></div>
                 </div>
@@ -131,9 +142,9 @@
                     </thead>
                     <tbody id="resultsBody">
                         <%
-                            List<Point> results = (List<Point>) session.getAttribute("results");
-                            if (results != null && !results.isEmpty()) {
-                                for (Point point : results) {
+                            List<Point> pagePoints = listPoints != null ? listPoints.getPage(currentPage, pageSize) : List.of();
+                            if (!pagePoints.isEmpty()) {
+                                for (Point point : pagePoints) {
                         %>
                                 <tr class="<%= point.getResultColor() %>">
                                     <td><%= point.x() %></td>
@@ -156,6 +167,16 @@
                     </tbody>
                 </table>
             </div>
+            <div class="pagination">
+                <% if (currentPage > 0) { %>
+                    <a href="index.jsp?page=<%= currentPage - 1 %>">Новее</a>
+                <% } %>
+                <span>Страница <%= currentPage + 1 %> из <%= pageCount %></span>
+                <% if (currentPage < pageCount - 1) { %>
+                    <a href="index.jsp?page=<%= currentPage + 1 %>">Старее</a>
+                <% } %>
+                <a href="history">Вся история</a>
+            </div>
         </section>
     </main>
 
@@ -155,39 +155,33 @@ class GraphManager {
         this.drawGraph();
     }
 
+    // вся история сессии приходит отдельно: таблица под графиком показывает лишь одну страницу
     loadExistingPoints() {
         this.points = [];
         
-        const resultsBody = document.getElementById('resultsBody');
-        if (!resultsBody) return;
+        const url = this.canvas.dataset.pointsUrl;
+        if (!url) return;
         
-        const resultsRows = resultsBody.querySelectorAll('tr:not(.no-results)');
-        resultsRows.forEach(row => {
-            const cells = row.cells;
-            if (cells.length >= 6) {
-                try {
-                    const x = parseFloat(cells[0].textContent);
-                    const y = parseFloat(cells[1].textContent);
-                    const r = parseFloat(cells[2].textContent);
-                    const resultText = cells[3].textContent;
-                    const result = resultText === 'Попадание';
-                    
-                    const canvasX = 250 + (x * 40);
-                    const canvasY = 250 - (y * 40);
-                    
-                    this.points.push({
-                        x: canvasX,
-                        y: canvasY,
+        fetch(url, { credentials: 'same-origin' })
+            .then(response => {
+                if (!response.ok) throw new Error('HTTP ' + response.status);
+                return response.json();
+            })
+            .then(history => {
+                const loaded = [];
+                history.forEach(([x, y, hit]) => {
+                    loaded.push({
+                        x: 250 + (x * 40),
+                        y: 250 - (y * 40),
                         isNew: false,
-                        hit: result
+                        hit: hit === 1
                     });
-                } catch (error) {
-                    console.warn('Error parsing point data:', error);
-                }
-            }
-        });
-        
-        this.drawGraph();
+                });
+                // точки, поставленные кликом, пока грузилась история, не теряются
+                this.points = loaded.concat(this.points);
+                this.drawGraph();
+            })
+            .catch(error => console.warn('Error loading point history:', error));
     }
 
     showGraphError(message) {
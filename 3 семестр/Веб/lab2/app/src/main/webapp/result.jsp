@@ -1,5 +1,6 @@
 <%@ page contentType="text/html;charset=UTF-8" language="java" %>
 <%@ page import="org.points.Point" %>
+<%@ page import="org.points.ListPoints" %>
 <%@ page import="java.util.List" %>
 <%@ page import="java.util.Map" %>
 <%
@@ -15,6 +16,16 @@
     }
     
     List<Point> currentPoints = (List<Point>) session.getAttribute("currentPoints");
+
+    // в таблицу попадает только одна страница истории, вся история - на /history
+    final int pageSize = 5;
+    ListPoints listPoints = (ListPoints) session.getAttribute("listPoints");
+    int pageCount = listPoints != null ? listPoints.getPageCount(pageSize) : 1;
+    int currentPage = 0;
+    try {
+        currentPage = Math.min(Math.max(Integer.parseInt(request.getParameter("page")), 0), pageCount - 1);
+    } catch (NumberFormatException ignored) {
+    }
 %>
 <!DOCTYPE html>
 <html lang="ru">
@@ -102,11 +113,9 @@
                         </thead>
                         <tbody>
                             <%
-                                List<Point> allResults = (List<Point>) session.getAttribute("results");
-                                if (allResults != null && !allResults.isEmpty()) {
-                                    int count = Math.min(allResults.size(), 5);
-                                    for (int i = 0; i < count; i++) {
-                                        Point point = allResults.get(i);
+                                List<Point> pagePoints = listPoints != null ? listPoints.getPage(currentPage, pageSize) : List.of();
+                                if (!pagePoints.isEmpty()) {
+                                    for (Point point : pagePoints) {
                             %>
                                 <tr class="<%= point.getResultColor() %>">
                                     <td><%= point.x() %></td>
@@ -129,6 +138,16 @@
                         </tbody>
                     </table>
                 </div>
+                <div class="pagination">
+                    <% if (currentPage > 0) { %>
+                        <a class="btn btn-secondary" href="result.jsp?page=<%= currentPage - 1 %>">Новее</a>
+                    <% } %>
+                    <span>Страница <%= currentPage + 1 %> из <%= pageCount %></span>
+                    <% if (currentPage < pageCount - 1) { %>
+                        <a class="btn btn-secondary" href="result.jsp?page=<%= currentPage + 1 %>">Старее</a>
+                    <% } %>
+                    <a class="btn btn-primary" href="history">Вся история</a>
+                </div>
             </section>
         </main>
     </div>
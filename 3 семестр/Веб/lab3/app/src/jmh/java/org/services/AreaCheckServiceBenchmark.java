@@ -0,0 +1,61 @@
+package org.services;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.models.Point;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AreaCheckServiceBenchmark {
+    private static final int SIZE = 1024;
+    private static final double[] RADII = {2, 3, 4, 5};
+
+    @Param({"uniform", "adversarial"})
+    private String distribution;
+
+    private final AreaCheckService service = new AreaCheckService();
+    private final Point[] points = new Point[SIZE];
+    private int index;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            if ("uniform".equals(distribution)) {
+                // вся область ввода при максимальном R
+                points[i] = new Point(-5 + random.nextDouble() * 10, -4 + random.nextDouble() * 8, 5.0);
+            } else {
+                // случайные четверть и R на каждую точку, попадание и промах примерно поровну
+                double r = RADII[random.nextInt(RADII.length)];
+                double x = (random.nextBoolean() ? 1 : -1) * random.nextDouble() * r;
+                double y = (random.nextBoolean() ? 1 : -1) * random.nextDouble() * r;
+                points[i] = new Point(x, y, r);
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean single() {
+        return service.checkHit(points[index++ & (SIZE - 1)]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void bulk(Blackhole blackhole) {
+        for (Point point : points) {
+            blackhole.consume(service.checkHit(point));
+        }
+    }
+}
@@ -73,6 +73,10 @@ public class MarkdownBean implements Serializable {
         updatePreview();
     }
 
+    public String getCacheStats() {
+        return RenderedHtmlCache.shared().stats().toString();
+    }
+
     public int getContentLength() {
         return (content != null) ? content.length() : 0;
     }
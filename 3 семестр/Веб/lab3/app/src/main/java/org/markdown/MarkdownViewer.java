@@ -1,6 +1,12 @@
 package org.markdown;
 
+import com.vladsch.flexmark.ast.Image;
+import com.vladsch.flexmark.ast.ImageRef;
+import com.vladsch.flexmark.html.AttributeProvider;
 import com.vladsch.flexmark.html.HtmlRenderer;
+import com.vladsch.flexmark.html.IndependentAttributeProviderFactory;
+import com.vladsch.flexmark.html.renderer.AttributablePart;
+import com.vladsch.flexmark.html.renderer.LinkResolverContext;
 import com.vladsch.flexmark.parser.Parser;
 import com.vladsch.flexmark.util.ast.Node;
 import jakarta.faces.component.FacesComponent;
@@ -8,10 +14,27 @@ import jakarta.faces.component.UIComponentBase;
 import jakarta.faces.context.FacesContext;
 import jakarta.faces.context.ResponseWriter;
 import java.io.IOException;
+import java.io.Writer;
 
 @FacesComponent(createTag = true, namespace = "http://markdown.org/ui", tagName = "markdownViewer")
 public class MarkdownViewer extends UIComponentBase {
-    
+    // Parser и HtmlRenderer после build() неизменяемы, их можно делить между запросами
+    private static final Parser PARSER = Parser.builder().build();
+    private static final HtmlRenderer RENDERER = HtmlRenderer.builder().build();
+    private static final HtmlRenderer NEW_TAB_RENDERER = HtmlRenderer.builder()
+            .attributeProviderFactory(new IndependentAttributeProviderFactory() {
+                @Override
+                public AttributeProvider apply(LinkResolverContext context) {
+                    return (node, part, attributes) -> {
+                        if (part == AttributablePart.LINK && !(node instanceof Image || node instanceof ImageRef)) {
+                            attributes.replaceValue("target", "_blank");
+                            attributes.replaceValue("rel", "noopener noreferrer");
+                        }
+                    };
+                }
+            })
+            .build();
+
     @Override
     public String getFamily() {
         return "org.markdown";
@@ -29,35 +52,37 @@ public class MarkdownViewer extends UIComponentBase {
             return;
         }
         
-        String html = convertMarkdownToHtml(value, 
-                codeTheme != null ? codeTheme : "light",
-                openLinksInNewTab != null ? openLinksInNewTab : false);
+        String theme = codeTheme != null ? codeTheme : "light";
+        boolean openInNewTab = openLinksInNewTab != null ? openLinksInNewTab : false;
+
+        // тот же текст с теми же опциями не разбирается повторно
+        RenderedHtmlCache cache = RenderedHtmlCache.shared();
+        String options = theme + '|' + openInNewTab;
+        String html = cache.get(options, value);
         
         writer.startElement("div", this);
         writer.writeAttribute("class", "markdown-viewer " + getClientId(), null);
         
-        writer.write(html);
+        if (html != null) {
+            writer.write(html);
+        } else {
+            // промах: HTML пишется прямо в ResponseWriter, без промежуточных строк
+            RenderedHtmlCache.Recorder recorder = cache.record(options, value, writer);
+            renderMarkdown(value, theme, openInNewTab, recorder);
+            recorder.finish();
+        }
         
         writer.endElement("div");
     }
     
-    private String convertMarkdownToHtml(String markdown, String theme, boolean openInNewTab) {
-        Parser parser = Parser.builder().build();
-        HtmlRenderer renderer = HtmlRenderer.builder().build();
-        
-        Node document = parser.parse(markdown);
-        String html = renderer.render(document);
-        
-        if (openInNewTab) {
-            html = html.replace("<a href=", "<a target=\"_blank\" rel=\"noopener noreferrer\" href=");
-        }
-        
-        if ("dark".equals(theme)) {
-            html = "<div class=\"markdown-theme-dark\">" + html + "</div>";
-        } else {
-            html = "<div class=\"markdown-theme-light\">" + html + "</div>";
-        }
-        
-        return html;
+    private void renderMarkdown(String markdown, String theme, boolean openInNewTab, Writer out) throws IOException {
+        Node document = PARSER.parse(markdown);
+        HtmlRenderer renderer = openInNewTab ? NEW_TAB_RENDERER : RENDERER;
+
+        out.write("dark".equals(theme)
+                ? "<div class=\"markdown-theme-dark\">"
+                : "<div class=\"markdown-theme-light\">");
+        renderer.render(document, out);
+        out.write("</div>");
     }
 }
\ No newline at end of file
@@ -0,0 +1,175 @@
+package org.markdown;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Общий LRU-кэш готового HTML. Ключ - текст Markdown вместе со строкой опций
+ * рендера; хэш берётся от обоих, а при совпадении хэша текст сравнивается
+ * целиком, так что коллизия не подсунет чужой HTML.
+ * <p>
+ * Размер ограничен суммой символов (текст + HTML) и числом записей. Документы
+ * больше восьмой части лимита не кэшируются, чтобы один такой не вытеснил всё.
+ * Лимиты: -Dmarkdown.cache.chars (по умолчанию 4M), -Dmarkdown.cache.entries (1024).
+ */
+public final class RenderedHtmlCache {
+    private static final RenderedHtmlCache SHARED = new RenderedHtmlCache(
+            Long.getLong("markdown.cache.chars", 4L << 20),
+            Integer.getInteger("markdown.cache.entries", 1024));
+
+    private final long maxWeight;
+    private final int maxEntries;
+    private final LinkedHashMap<Key, String> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public RenderedHtmlCache(long maxWeight, int maxEntries) {
+        this.maxWeight = maxWeight;
+        this.maxEntries = maxEntries;
+    }
+
+    public static RenderedHtmlCache shared() {
+        return SHARED;
+    }
+
+    // null - такого документа с такими опциями ещё нет
+    public String get(String options, String markdown) {
+        String html;
+        synchronized (this) {
+            html = entries.get(new Key(options, markdown));
+        }
+        (html != null ? hits : misses).increment();
+        return html;
+    }
+
+    public void put(String options, String markdown, String html) {
+        long entryWeight = (long) markdown.length() + html.length();
+        if (entryWeight > maxWeight / 8) {
+            return;
+        }
+        synchronized (this) {
+            String previous = entries.put(new Key(options, markdown), html);
+            weight += entryWeight - (previous != null ? markdown.length() + previous.length() : 0);
+            Iterator<Map.Entry<Key, String>> eldest = entries.entrySet().iterator();
+            while (weight > maxWeight || entries.size() > maxEntries) {
+                Map.Entry<Key, String> entry = eldest.next();
+                weight -= entry.getKey().markdown().length() + entry.getValue().length();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Writer для рендера при промахе: всё сразу уходит в out, а копия HTML
+     * копится, только пока запись помещается в лимит кэша. После успешного
+     * рендера {@link Recorder#finish()} кладёт её в кэш.
+     */
+    public Recorder record(String options, String markdown, Writer out) {
+        return new Recorder(options, markdown, out, maxWeight / 8 - markdown.length());
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public Stats stats() {
+        int size;
+        long currentWeight;
+        synchronized (this) {
+            size = entries.size();
+            currentWeight = weight;
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size, currentWeight);
+    }
+
+    public final class Recorder extends Writer {
+        private final String options;
+        private final String markdown;
+        private final Writer out;
+        private final long limit;
+        private StringBuilder html;
+
+        private Recorder(String options, String markdown, Writer out, long limit) {
+            this.options = options;
+            this.markdown = markdown;
+            this.out = out;
+            this.limit = limit;
+            this.html = limit > 0 ? new StringBuilder() : null;
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            out.write(c);
+            if (keep(1)) {
+                html.append((char) c);
+            }
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            out.write(cbuf, off, len);
+            if (keep(len)) {
+                html.append(cbuf, off, len);
+            }
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            out.write(str, off, len);
+            if (keep(len)) {
+                html.append(str, off, len);
+            }
+        }
+
+        // документ перерос лимит - копию выбрасываем, дальше только пишем в out
+        private boolean keep(int len) {
+            if (html != null && html.length() + len > limit) {
+                html = null;
+            }
+            return html != null;
+        }
+
+        public void finish() {
+            if (html != null) {
+                put(options, markdown, html.toString());
+                html = null;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        // out принадлежит странице, закрывать его нельзя
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    private record Key(String options, String markdown) {
+    }
+
+    public record Stats(long hits, long misses, long evictions, int size, long weight) {
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("попаданий %d, промахов %d (%.1f%%), вытеснено %d, записей %d, символов %d",
+                    hits, misses, hitRate() * 100, evictions, size, weight);
+        }
+    }
+}
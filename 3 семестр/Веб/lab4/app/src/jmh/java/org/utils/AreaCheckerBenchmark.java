@@ -0,0 +1,64 @@
+package org.utils;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AreaCheckerBenchmark {
+    private static final int SIZE = 1024;
+    private static final double[] RADII = {1, 2, 3, 4, 5};
+
+    @Param({"uniform", "adversarial"})
+    private String distribution;
+
+    private final double[] xs = new double[SIZE];
+    private final double[] ys = new double[SIZE];
+    private final double[] rs = new double[SIZE];
+    private int index;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            if ("uniform".equals(distribution)) {
+                // вся область ввода при максимальном R
+                rs[i] = 5;
+                xs[i] = -5 + random.nextDouble() * 10;
+                ys[i] = -3 + random.nextDouble() * 8;
+            } else {
+                // случайные четверть и R на каждую точку, попадание и промах примерно поровну
+                double r = RADII[random.nextInt(RADII.length)];
+                rs[i] = r;
+                xs[i] = (random.nextBoolean() ? 1 : -1) * random.nextDouble() * r;
+                ys[i] = (random.nextBoolean() ? 1 : -1) * random.nextDouble() * r;
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean single() {
+        int i = index++ & (SIZE - 1);
+        return AreaChecker.checkArea(xs[i], ys[i], rs[i]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void bulk(Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            blackhole.consume(AreaChecker.checkArea(xs[i], ys[i], rs[i]));
+        }
+    }
+}
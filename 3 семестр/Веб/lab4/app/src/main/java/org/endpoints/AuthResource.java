@@ -1,8 +1,12 @@
 package org.endpoints;
 
+import jakarta.annotation.Resource;
 import jakarta.ejb.EJB;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.model.User;
@@ -13,6 +17,7 @@ import org.security.auth.exception.UserAlreadyExistsException;
 import org.security.jwt.JwtService;
 
 import java.util.Map;
+import java.util.concurrent.CompletionException;
 
 @Path("/auth")
 @Produces(MediaType.APPLICATION_JSON)
@@ -28,31 +33,54 @@ public class AuthResource {
     @Inject
     private JwtService jwtService;
 
+    // продолжения после BCrypt: EJB и JWT нужен контекст контейнера, которого нет у потоков хеширования
+    @Resource
+    private ManagedExecutorService managedExecutor;
+
     @POST
     @Path("/register")
-    public Response register(User user) {
-        if (userRepository.existsByUsername(user.getUsername())) {
-            throw new UserAlreadyExistsException(user.getUsername());
-        }
-        
-        user.setPasswordHash(passwordHasher.hash(user.getPasswordHash()));
-        userRepository.save(user);
-        
-        String token = jwtService.generateToken(user.getUsername());
-        return Response.ok(Map.of("token", token, "username", user.getUsername())).build();
+    public void register(User user, @Suspended AsyncResponse response) {
+        passwordHasher.hashAsync(user.getPasswordHash())
+                .thenApplyAsync(hash -> {
+                    user.setPasswordHash(hash);
+                    if (!userRepository.insertIfAbsent(user)) {
+                        throw new UserAlreadyExistsException(user.getUsername());
+                    }
+                    return tokenResponse(user.getUsername());
+                }, managedExecutor)
+                .whenComplete((result, error) -> resume(response, result, error));
     }
 
     @POST
     @Path("/login")
-    public Response login(User loginData) {
+    public void login(User loginData, @Suspended AsyncResponse response) {
         User user = userRepository.findByUsername(loginData.getUsername())
                 .orElseThrow(InvalidCredentialsException::new);
 
-        if (!passwordHasher.check(loginData.getPasswordHash(), user.getPasswordHash())) {
-            throw new InvalidCredentialsException();
-        }
+        passwordHasher.checkAsync(loginData.getPasswordHash(), user.getPasswordHash())
+                .thenApplyAsync(matches -> {
+                    if (!matches) {
+                        throw new InvalidCredentialsException();
+                    }
+                    passwordHasher.rehashInBackground(loginData.getPasswordHash(), user.getPasswordHash(),
+                            managedExecutor, hash -> userRepository.updatePasswordHash(user.getId(), hash));
+                    return tokenResponse(user.getUsername());
+                }, managedExecutor)
+                .whenComplete((result, error) -> resume(response, result, error));
+    }
 
-        String token = jwtService.generateToken(user.getUsername());
-        return Response.ok(Map.of("token", token, "username", user.getUsername())).build();
+    private Response tokenResponse(String username) {
+        String token = jwtService.generateToken(username);
+        return Response.ok(Map.of("token", token, "username", username)).build();
+    }
+
+    private void resume(AsyncResponse response, Response result, Throwable error) {
+        if (error == null) {
+            response.resume(result);
+        } else if (error instanceof CompletionException && error.getCause() != null) {
+            response.resume(error.getCause());
+        } else {
+            response.resume(error);
+        }
     }
 }
\ No newline at end of file
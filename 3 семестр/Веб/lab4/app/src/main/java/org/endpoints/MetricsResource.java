@@ -0,0 +1,54 @@
+package org.endpoints;
+
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnit;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.security.annotation.Secured;
+import org.security.jwt.TokenCache;
+
+import java.util.Map;
+
+@Path("/metrics")
+@Secured
+@Produces(MediaType.APPLICATION_JSON)
+public class MetricsResource {
+
+    @Inject
+    private TokenCache tokenCache;
+
+    @PersistenceUnit(unitName = "pointsPU")
+    private EntityManagerFactory emf;
+
+    @GET
+    @Path("/tokens")
+    public Response getTokenCacheStats() {
+        return Response.ok(Map.of(
+                "hits", tokenCache.getHits(),
+                "misses", tokenCache.getMisses(),
+                "evictions", tokenCache.getEvictions(),
+                "size", tokenCache.size()
+        )).build();
+    }
+
+    @GET
+    @Path("/cache")
+    public Response getSecondLevelCacheStats() {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        return Response.ok(Map.of(
+                "statisticsEnabled", stats.isStatisticsEnabled(),
+                "hits", stats.getSecondLevelCacheHitCount(),
+                "misses", stats.getSecondLevelCacheMissCount(),
+                "puts", stats.getSecondLevelCachePutCount(),
+                "naturalIdHits", stats.getNaturalIdCacheHitCount(),
+                "naturalIdMisses", stats.getNaturalIdCacheMissCount(),
+                "naturalIdPuts", stats.getNaturalIdCachePutCount()
+        )).build();
+    }
+}
@@ -0,0 +1,18 @@
+package org.endpoints;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.ws.rs.ext.ContextResolver;
+import jakarta.ws.rs.ext.Provider;
+
+// один ObjectMapper и для JSON-провайдера JAX-RS, и для потоковой выдачи /points/stream
+@Provider
+public class ObjectMapperResolver implements ContextResolver<ObjectMapper> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Override
+    public ObjectMapper getContext(Class<?> type) {
+        return MAPPER;
+    }
+}
@@ -6,6 +6,10 @@ import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.ext.Providers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.model.Point;
 import org.model.User;
@@ -13,6 +17,11 @@ import org.repository.PointRepository;
 import org.repository.UserRepository;
 import org.security.annotation.Secured;
 import org.utils.AreaChecker;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @Path("/points")
@@ -21,6 +30,8 @@ import java.util.List;
 @Consumes(MediaType.APPLICATION_JSON)
 public class PointResource {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
     @Inject
     private PointRepository pointRepository;
 
@@ -28,15 +39,48 @@ public class PointResource {
     private UserRepository userRepository;
 
     @GET
-    public Response getUserPoints(@Context SecurityContext context) {
-        String username = context.getUserPrincipal().getName();
-        List<Point> points = pointRepository.findAllByUser(username);
+    public Response getUserPoints(@QueryParam("limit") Integer limit,
+                                  @QueryParam("after") Long after,
+                                  @Context SecurityContext context) {
+        if (limit == null && after != null) {
+            return Response.status(400).entity("after задаётся только вместе с limit").build();
+        }
+        Long userId = resolveUserId(context);
+        if (limit == null) {
+            return Response.ok(pointRepository.findAllByUser(userId)).build();
+        }
+
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            return Response.status(400).entity("limit должен быть от 1 до " + MAX_PAGE_SIZE).build();
+        }
+        List<Point> points = pointRepository.findPageByUser(userId, after, limit);
         return Response.ok(points).build();
     }
 
+    @GET
+    @Path("/stream")
+    @Produces("application/x-ndjson")
+    public Response streamUserPoints(@Context SecurityContext context, @Context Providers providers) {
+        Long userId = resolveUserId(context);
+        // тот же ObjectMapper, что и у JSON-провайдера: поля и форматы совпадают с GET /points
+        ObjectMapper mapper = providers.getContextResolver(ObjectMapper.class, MediaType.APPLICATION_JSON_TYPE)
+                .getContext(Point.class);
+
+        StreamingOutput stream = output -> {
+            OutputStream out = new BufferedOutputStream(output);
+            try {
+                pointRepository.forEachByUser(userId, point -> writeLine(out, mapper, point));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+        };
+        return Response.ok(stream).build();
+    }
+
     @POST
     public Response addPoint(Point point, @Context SecurityContext context) {
-        if (point.getY() <= -3 || point.getY() >= 5) {
+        if (!isValidY(point)) {
             return Response.status(400).entity("Y должен быть от -3 до 5").build();
         }
 
@@ -50,5 +94,49 @@ public class PointResource {
         return Response.ok(point).build();
     }
 
-    
+    @POST
+    @Path("/batch")
+    public Response addPoints(List<Point> points, @Context SecurityContext context) {
+        if (points == null || points.isEmpty()) {
+            return Response.status(400).entity("Список точек пуст").build();
+        }
+        if (points.size() > PointRepository.MAX_BATCH_POINTS) {
+            return Response.status(413)
+                    .entity("Не больше " + PointRepository.MAX_BATCH_POINTS + " точек за запрос").build();
+        }
+        for (Point point : points) {
+            if (!isValidY(point)) {
+                return Response.status(400).entity("Y должен быть от -3 до 5").build();
+            }
+        }
+
+        String username = context.getUserPrincipal().getName();
+        User user = userRepository.findByUsername(username).orElseThrow();
+
+        for (Point point : points) {
+            point.setResult(AreaChecker.checkArea(point.getX(), point.getY(), point.getR()));
+            point.setUser(user);
+        }
+
+        pointRepository.saveAll(points);
+        return Response.ok(points).build();
+    }
+
+    private Long resolveUserId(SecurityContext context) {
+        String username = context.getUserPrincipal().getName();
+        return userRepository.findIdByUsername(username).orElseThrow();
+    }
+
+    private void writeLine(OutputStream out, ObjectMapper mapper, Point point) {
+        try {
+            out.write(mapper.writeValueAsBytes(point));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean isValidY(Point point) {
+        return point.getY() > -3 && point.getY() < 5;
+    }
 }
\ No newline at end of file
@@ -11,7 +11,9 @@ import java.io.Serializable;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
-@Table(name = "points")
+@Table(name = "points", indexes = {
+    @Index(name = "idx_points_user_id", columnList = "user_login, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,7 +22,7 @@ public class Point implements Serializable {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "point_seq")
-    @SequenceGenerator(name = "point_seq", sequenceName = "POINT_ID_SEQ", allocationSize = 1)
+    @SequenceGenerator(name = "point_seq", sequenceName = "POINT_ID_SEQ", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -4,11 +4,19 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.io.Serializable;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+// имена регионов без точек и '#': Caffeine ищет их настройки в application.conf как путь
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-by-name")
 @Data
 @NoArgsConstructor 
 @AllArgsConstructor 
@@ -17,6 +25,7 @@ public class User implements Serializable {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @NaturalId
     @Column(name = "username", nullable = false, unique = true)
     private String username;
 
@@ -3,10 +3,13 @@ package org.repository;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
 
 import org.model.Point;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Stateless
 public class PointRepository {
@@ -15,19 +18,61 @@ public class PointRepository {
     private EntityManager em;
 
 
+    private static final int BATCH_SIZE = 50;
+    // больше точек за один запрос не принимаем: одна транзакция на 20 пачек JDBC
+    public static final int MAX_BATCH_POINTS = BATCH_SIZE * 20;
+    private static final int FETCH_SIZE = 500;
+
     public void save(Point point) {
         em.persist(point);
     }
 
-    public List<Point> findAllByUser(String username) {
-        return em.createQuery("SELECT p FROM Point p WHERE p.user.username = :username ORDER BY p.id DESC", Point.class)
-                .setParameter("username", username)
+    public void saveAll(List<Point> points) {
+        for (int i = 0; i < points.size(); i++) {
+            em.persist(points.get(i));
+            if ((i + 1) % BATCH_SIZE == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+    }
+
+    public List<Point> findAllByUser(Long userId) {
+        return em.createQuery("SELECT p FROM Point p WHERE p.user.id = :userId ORDER BY p.id DESC", Point.class)
+                .setParameter("userId", userId)
                 .getResultList();
     }
 
-    public void deleteByUser(String username) {
-        em.createQuery("DELETE FROM Point p WHERE p.user.username = :username")
-                .setParameter("username", username)
+    public List<Point> findPageByUser(Long userId, Long after, int limit) {
+        String jpql = after == null
+                ? "SELECT p FROM Point p WHERE p.user.id = :userId ORDER BY p.id DESC"
+                : "SELECT p FROM Point p WHERE p.user.id = :userId AND p.id < :after ORDER BY p.id DESC";
+
+        TypedQuery<Point> query = em.createQuery(jpql, Point.class)
+                .setParameter("userId", userId)
+                .setMaxResults(limit);
+        if (after != null) {
+            query.setParameter("after", after);
+        }
+        return query.getResultList();
+    }
+
+    public void forEachByUser(Long userId, Consumer<Point> action) {
+        try (Stream<Point> points = em.createQuery("SELECT p FROM Point p WHERE p.user.id = :userId ORDER BY p.id DESC", Point.class)
+                .setParameter("userId", userId)
+                .setHint("org.hibernate.fetchSize", FETCH_SIZE)
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream()) {
+            points.forEach(point -> {
+                action.accept(point);
+                em.detach(point);
+            });
+        }
+    }
+
+    public void deleteByUser(Long userId) {
+        em.createQuery("DELETE FROM Point p WHERE p.user.id = :userId")
+                .setParameter("userId", userId)
                 .executeUpdate();
     }
 }
\ No newline at end of file
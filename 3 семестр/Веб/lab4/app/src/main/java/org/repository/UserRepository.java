@@ -2,10 +2,11 @@ package org.repository;
 
 import jakarta.ejb.Stateless;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
 import org.model.User;
 
+import java.util.List;
 import java.util.Optional;
 
 @Stateless
@@ -19,21 +20,41 @@ public class UserRepository {
         em.persist(user);
     }
 
+    public void updatePasswordHash(Long id, String passwordHash) {
+        em.createQuery("UPDATE User u SET u.passwordHash = :passwordHash WHERE u.id = :id")
+                .setParameter("passwordHash", passwordHash)
+                .setParameter("id", id)
+                .executeUpdate();
+        evict(id);
+    }
+
     public Optional<User> findByUsername(String username) {
-        try {
-            User user = em.createQuery("SELECT u FROM User u WHERE u.username = :username", User.class)
-                    .setParameter("username", username)
-                    .getSingleResult();
-            return Optional.of(user);
-        } catch (NoResultException e) {
-            return Optional.empty();
-        }
+        return em.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
     }
     
-    public boolean existsByUsername(String username) {
-        Long count = em.createQuery("SELECT COUNT(u) FROM User u WHERE u.username = :username", Long.class)
-                .setParameter("username", username)
-                .getSingleResult();
-        return count > 0;
+    public Optional<Long> findIdByUsername(String username) {
+        return findByUsername(username).map(User::getId);
+    }
+
+    public boolean insertIfAbsent(User user) {
+        List<?> ids = em.createNativeQuery(
+                        "INSERT INTO users (username, password) VALUES (:username, :password) " +
+                        "ON CONFLICT (username) DO NOTHING RETURNING id")
+                .setParameter("username", user.getUsername())
+                .setParameter("password", user.getPasswordHash())
+                .getResultList();
+
+        if (ids.isEmpty()) {
+            return false;
+        }
+        user.setId(((Number) ids.get(0)).longValue());
+        evict(user.getId());
+        return true;
+    }
+
+    private void evict(Long id) {
+        em.getEntityManagerFactory().getCache().evict(User.class, id);
     }
 }
\ No newline at end of file
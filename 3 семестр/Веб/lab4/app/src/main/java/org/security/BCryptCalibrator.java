@@ -0,0 +1,38 @@
+package org.security;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+public class BCryptCalibrator {
+
+    private static final int SAMPLES = 3;
+
+    public static void main(String[] args) {
+        long targetMillis = args.length > 0 ? Long.parseLong(args[0]) : 250;
+        int cost = calibrate(targetMillis);
+        System.out.println("cost " + cost + " (-D" + PasswordHasher.COST_PROPERTY + "=" + cost + ")");
+    }
+
+    public static int calibrate(long targetMillis) {
+        int best = PasswordHasher.MIN_COST;
+        for (int cost = PasswordHasher.MIN_COST; cost <= PasswordHasher.MAX_COST; cost++) {
+            long millis = measure(cost);
+            System.out.println("cost " + cost + ": " + millis + " ms");
+            if (millis > targetMillis) {
+                break;
+            }
+            best = cost;
+        }
+        return best;
+    }
+
+    private static long measure(int cost) {
+        String salt = BCrypt.gensalt(cost);
+        BCrypt.hashpw("warmup", salt);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < SAMPLES; i++) {
+            BCrypt.hashpw("calibration", salt);
+        }
+        return (System.nanoTime() - start) / SAMPLES / 1_000_000;
+    }
+}
\ No newline at end of file
@@ -1,14 +1,62 @@
 package org.security;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
 import jakarta.enterprise.context.ApplicationScoped;
 import org.mindrot.jbcrypt.BCrypt;
+import org.security.auth.exception.ServiceBusyException;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * BCrypt в ограниченном пуле. Потоки пула берутся у контейнера (ManagedThreadFactory),
+ * но в пуле выполняется только хеширование: обращения к EJB и выдачу токена
+ * вызывающий код продолжает на ManagedExecutorService.
+ */
 @ApplicationScoped
 public class PasswordHasher {
 
+    public static final String COST_PROPERTY = "bcrypt.cost";
+    public static final int DEFAULT_COST = 12;
+    public static final int MIN_COST = 4;
+    public static final int MAX_COST = 31;
+
+    private static final int QUEUE_CAPACITY = 64;
+    private static final int RETRY_AFTER_SECONDS = 1;
+
+    @Resource
+    private ManagedThreadFactory threadFactory;
+
+    private ThreadPoolExecutor executor;
+    private int cost;
+
+    @PostConstruct
+    void init() {
+        cost = Math.max(MIN_COST, Math.min(MAX_COST, Integer.getInteger(COST_PROPERTY, DEFAULT_COST)));
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
 
     public String hash(String password) {
-        return BCrypt.hashpw(password, BCrypt.gensalt(12));
+        return BCrypt.hashpw(password, BCrypt.gensalt(cost));
     }
 
     public boolean check(String password, String hashed) {
@@ -18,4 +66,50 @@ public class PasswordHasher {
             return false;
         }
     }
+
+    public CompletableFuture<String> hashAsync(String password) {
+        return submit(() -> hash(password));
+    }
+
+    public CompletableFuture<Boolean> checkAsync(String password, String hashed) {
+        return submit(() -> check(password, hashed));
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public boolean needsRehash(String hashed) {
+        return costOf(hashed) != cost;
+    }
+
+    // onRehash вызывается на callbackExecutor, не в пуле BCrypt
+    public void rehashInBackground(String password, String hashed, Executor callbackExecutor,
+                                   Consumer<String> onRehash) {
+        if (!needsRehash(hashed)) {
+            return;
+        }
+        try {
+            CompletableFuture.supplyAsync(() -> hash(password), executor)
+                    .thenAcceptAsync(onRehash, callbackExecutor);
+        } catch (RejectedExecutionException e) {
+            // очередь занята логинами, перехешируем при следующем входе
+        }
+    }
+
+    public static int costOf(String hashed) {
+        try {
+            return Integer.parseInt(hashed.substring(4, 6));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceBusyException(RETRY_AFTER_SECONDS);
+        }
+    }
 }
\ No newline at end of file
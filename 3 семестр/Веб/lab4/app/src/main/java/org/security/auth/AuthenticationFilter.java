@@ -9,7 +9,10 @@ import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.Provider;
 import java.io.IOException;
+
+import io.jsonwebtoken.Claims;
 import org.security.jwt.JwtService;
+import org.security.jwt.TokenCache;
 import org.security.annotation.Secured;
 
 @Secured
@@ -20,6 +23,9 @@ public class AuthenticationFilter implements ContainerRequestFilter {
     @Inject
     private JwtService jwtService;
 
+    @Inject
+    private TokenCache tokenCache;
+
     @Override
     public void filter(ContainerRequestContext requestContext) throws IOException {
         String authHeader = requestContext.getHeaderString(HttpHeaders.AUTHORIZATION);
@@ -30,7 +36,15 @@ public class AuthenticationFilter implements ContainerRequestFilter {
         }
 
         String token = authHeader.substring("Bearer ".length()).trim();
-        String username = jwtService.validateTokenAndGetUsername(token);
+        String username = tokenCache.get(token);
+
+        if (username == null) {
+            Claims claims = jwtService.validateToken(token);
+            if (claims != null) {
+                username = claims.getSubject();
+                tokenCache.put(token, username, claims.getExpiration());
+            }
+        }
 
         if (username == null) {
             requestContext.abortWith(Response.status(Response.Status.UNAUTHORIZED).build());
@@ -0,0 +1,14 @@
+package org.security.auth.exception;
+
+import org.security.auth.exception.base.AuthException;
+
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+
+public class ServiceBusyException extends AuthException {
+    public ServiceBusyException(int retryAfterSeconds) {
+        super("сервер перегружен, повторите попытку позже",
+                Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds));
+    }
+}
\ No newline at end of file
@@ -7,7 +7,11 @@ import jakarta.ws.rs.core.Response;
 
 public class AuthException extends WebApplicationException {
     public AuthException(String message, Response.Status status) {
-        super(Response.status(status)
+        this(message, Response.status(status));
+    }
+
+    protected AuthException(String message, Response.ResponseBuilder response) {
+        super(response
                 .entity(new ErrorMessage(message))
                 .build());
     }
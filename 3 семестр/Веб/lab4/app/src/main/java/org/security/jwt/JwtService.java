@@ -2,6 +2,7 @@ package org.security.jwt;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -16,6 +17,7 @@ public class JwtService {
 
     private final String SECRET_STRING = "0123456789abcdef0123456789abcdef";
     private final SecretKey KEY = Keys.hmacShaKeyFor(SECRET_STRING.getBytes(StandardCharsets.UTF_8));
+    private final JwtParser PARSER = Jwts.parserBuilder().setSigningKey(KEY).build();
     
     
     private final long EXPIRATION_TIME = 1000*60*5*1; 
@@ -30,18 +32,19 @@ public class JwtService {
     }
 
     public String validateTokenAndGetUsername(String token) {
+        Claims claims = validateToken(token);
+        return claims == null ? null : claims.getSubject();
+    }
+
+    public Claims validateToken(String token) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(KEY)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            Claims claims = PARSER.parseClaimsJws(token).getBody();
 
             if (claims.getExpiration().before(new Date())) {
                 return null;
             }
 
-            return claims.getSubject();
+            return claims;
         } catch (JwtException | IllegalArgumentException e) {
             return null;
         }
@@ -0,0 +1,101 @@
+package org.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.atomic.LongAdder;
+
+// Caffeine сам вытесняет записи сверх MAX_SIZE и удаляет токены в момент их истечения
+@ApplicationScoped
+public class TokenCache {
+
+    private static final int MAX_SIZE = 10_000;
+
+    private final Cache<String, VerifiedToken> tokens = Caffeine.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .expireAfter(new Expiry<String, VerifiedToken>() {
+                @Override
+                public long expireAfterCreate(String key, VerifiedToken verified, long currentTime) {
+                    return untilExpiration(verified);
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, VerifiedToken verified, long currentTime,
+                                              long currentDuration) {
+                    return untilExpiration(verified);
+                }
+
+                // чтение срок жизни не продлевает
+                @Override
+                public long expireAfterRead(String key, VerifiedToken verified, long currentTime,
+                                            long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public String get(String token) {
+        String key = hash(token);
+        VerifiedToken verified = tokens.getIfPresent(key);
+
+        if (verified == null || verified.isExpired(System.currentTimeMillis())) {
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return verified.username();
+    }
+
+    public void put(String token, String username, Date expiration) {
+        tokens.put(hash(token), new VerifiedToken(username, expiration.getTime()));
+    }
+
+    // наносекунды до истечения JWT, как ждёт Expiry
+    private static long untilExpiration(VerifiedToken verified) {
+        return Duration.ofMillis(Math.max(0, verified.expiresAt() - System.currentTimeMillis())).toNanos();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return tokens.stats().evictionCount();
+    }
+
+    public int size() {
+        return (int) tokens.estimatedSize();
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record VerifiedToken(String username, long expiresAt) {
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
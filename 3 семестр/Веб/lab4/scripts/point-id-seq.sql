@@ -0,0 +1,5 @@
+-- шаг последовательности должен совпадать с allocationSize в org.model.Point;
+-- до применения скрипта приложение работает с шагом 1 (increment_size_mismatch_strategy=FIX
+-- в persistence.xml), после - выделяет id по 50. Применить один раз, до или после деплоя.
+ALTER SEQUENCE point_id_seq INCREMENT BY 50;
+SELECT setval('point_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM points), false);